@@ -141,6 +141,7 @@ public class GeyserBungeeInjector extends GeyserInjector implements Listener {
                             channelInitializer = PipelineUtils.SERVER_CHILD;
                         }
                         initChannel.invoke(channelInitializer, ch);
+                        removeFraming(ch, PipelineUtils.FRAME_DECODER, PipelineUtils.FRAME_PREPENDER);
 
                         if (bootstrap.getGeyserConfig().isDisableCompression()) {
                             ch.pipeline().addAfter(PipelineUtils.PACKET_ENCODER, "geyser-compression-disabler",
@@ -118,6 +118,7 @@ public class GeyserSpigotInjector extends GeyserInjector {
                     @Override
                     protected void initChannel(@NonNull Channel ch) throws Exception {
                         initChannel.invoke(childHandler, ch);
+                        removeFraming(ch, "splitter", "prepender");
 
                         if (bootstrap.getGeyserConfig().isDisableCompression() && GeyserSpigotCompressionDisabler.ENABLED) {
                             ch.pipeline().addAfter("encoder", "geyser-compression-disabler", new GeyserSpigotCompressionDisabler());
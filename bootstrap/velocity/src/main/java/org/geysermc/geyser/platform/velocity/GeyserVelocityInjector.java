@@ -95,4 +95,10 @@ public class GeyserVelocityInjector extends GeyserInjector {
         this.localChannel = channelFuture;
         this.serverSocketAddress = channelFuture.channel().localAddress();
     }
+
+    @Override
+    protected boolean supportsUnframedConnections() {
+        // Velocity removes its frame encoder when compression is enabled, and adds a new one back when it is disabled
+        return false;
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.command.defaults;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.geysermc.geyser.command.GeyserCommand;
+import org.geysermc.geyser.command.GeyserCommandSource;
+import org.geysermc.geyser.registry.PacketTranslatorRegistry;
+import org.geysermc.geyser.registry.Registries;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.text.GeyserLocale;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shows which packet translators are the most expensive, once stats have been enabled.
+ */
+public class TranslatorsCommand extends GeyserCommand {
+    private static final int SHOWN_TRANSLATORS = 10;
+    private static final String DESCRIPTION = "Shows the most expensive packet translators";
+
+    public TranslatorsCommand(String name, String description, String permission) {
+        super(name, description, permission);
+    }
+
+    @Override
+    public void execute(GeyserSession session, GeyserCommandSource sender, String[] args) {
+        if (args.length > 0) {
+            switch (args[0].toLowerCase(Locale.ROOT)) {
+                case "on" -> {
+                    PacketTranslatorRegistry.setRecordingStats(true);
+                    sender.sendMessage(translate(sender, "geyser.commands.translators.enabled", "Packet translator stats are now being recorded."));
+                }
+                case "off" -> {
+                    PacketTranslatorRegistry.setRecordingStats(false);
+                    sender.sendMessage(translate(sender, "geyser.commands.translators.disabled", "Packet translator stats are no longer being recorded."));
+                }
+                case "reset" -> {
+                    Registries.JAVA_PACKET_TRANSLATORS.resetStats();
+                    Registries.BEDROCK_PACKET_TRANSLATORS.resetStats();
+                    sender.sendMessage(translate(sender, "geyser.commands.translators.reset", "Packet translator stats have been reset."));
+                }
+                default -> sender.sendMessage(translate(sender, "geyser.commands.translators.usage", "Usage: /geyser {0} [on|off|reset]", name));
+            }
+            return;
+        }
+
+        if (!PacketTranslatorRegistry.isRecordingStats()) {
+            sender.sendMessage(translate(sender, "geyser.commands.translators.not_recording",
+                    "Packet translator stats are not being recorded. Use /geyser {0} on to start.", name));
+        }
+        sendStats(sender, "Java", Registries.JAVA_PACKET_TRANSLATORS.getStats());
+        sendStats(sender, "Bedrock", Registries.BEDROCK_PACKET_TRANSLATORS.getStats());
+    }
+
+    private static void sendStats(GeyserCommandSource sender, String direction, List<PacketTranslatorRegistry.TranslatorStats> stats) {
+        sender.sendMessage(translate(sender, "geyser.commands.translators.header", "{0} packet translators ({1} used):", direction, stats.size()));
+        for (PacketTranslatorRegistry.TranslatorStats translator : stats.subList(0, Math.min(SHOWN_TRANSLATORS, stats.size()))) {
+            // Numbers are formatted here so MessageFormat doesn't round the timings
+            sender.sendMessage(translate(sender, "geyser.commands.translators.entry", "  {0}: {1} calls, {2} ms total, {3} us each, {4} errors",
+                    translator.translator(), String.valueOf(translator.invocations()),
+                    String.format(Locale.ROOT, "%.2f", translator.nanos() / 1_000_000d),
+                    String.format(Locale.ROOT, "%.2f", translator.nanos() / 1_000d / translator.invocations()),
+                    String.valueOf(translator.exceptions())));
+        }
+    }
+
+    /**
+     * The language files don't have this command's strings yet, so English is used until they do.
+     */
+    private static String translate(GeyserCommandSource sender, String key, String english, Object... values) {
+        String message = GeyserLocale.getPlayerLocaleString(key, sender.locale(), values);
+        if (!message.equals(key)) {
+            return message;
+        }
+        return values.length == 0 ? english : MessageFormat.format(english.replace("'", "''"), values);
+    }
+
+    @Override
+    public String description() {
+        String key = super.description();
+        return GeyserLocale.getLocaleStringLog(key).equals(key) ? DESCRIPTION : key;
+    }
+
+    @NonNull
+    @Override
+    public List<String> subCommands() {
+        return Arrays.asList("on", "off", "reset");
+    }
+
+    @Override
+    public boolean isSuggestedOpOnly() {
+        return true;
+    }
+}
@@ -126,6 +126,16 @@ public interface GeyserConfiguration {
 
         int getCompressionLevel();
 
+        /**
+         * @return the rules that choose a compression algorithm from a client's address, checked in order
+         */
+        List<? extends ICompressionRule> getCompressionRules();
+
+        /**
+         * @return the system CPU load, from 0 to 1, above which new connections matching no rule use Snappy
+         */
+        double getCompressionCpuThreshold();
+
         boolean isEnableProxyProtocol();
 
         List<String> getProxyProtocolWhitelistedIPs();
@@ -136,6 +146,17 @@ public interface GeyserConfiguration {
         List<CIDRMatcher> getWhitelistedIPsMatchers();
     }
 
+    interface ICompressionRule {
+        List<String> getAddresses();
+
+        /**
+         * @return one of zlib, snappy or none
+         */
+        String getAlgorithm();
+
+        int getLevel();
+    }
+
     interface IRemoteConfiguration extends RemoteServer {
 
         void setAddress(String address);
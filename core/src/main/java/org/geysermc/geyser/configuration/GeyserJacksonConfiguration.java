@@ -207,6 +207,17 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
             return Math.max(-1, Math.min(compressionLevel, 9));
         }
 
+        @Getter
+        @JsonProperty("compression-rules")
+        private List<CompressionRuleConfiguration> compressionRules = Collections.emptyList();
+
+        @JsonProperty("compression-cpu-threshold")
+        private double compressionCpuThreshold = 1;
+
+        public double getCompressionCpuThreshold() {
+            return Math.max(0, compressionCpuThreshold);
+        }
+
         @Getter
         @JsonProperty("enable-proxy-protocol")
         private boolean enableProxyProtocol = false;
@@ -233,6 +244,23 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
         }
     }
 
+    @Getter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CompressionRuleConfiguration implements ICompressionRule {
+        @JsonProperty("addresses")
+        private List<String> addresses = Collections.emptyList();
+
+        @JsonProperty("algorithm")
+        private String algorithm = "zlib";
+
+        @JsonProperty("level")
+        private int level = 6;
+
+        public int getLevel() {
+            return Math.max(-1, Math.min(level, 9));
+        }
+    }
+
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class RemoteConfiguration implements IRemoteConfiguration {
         @Setter
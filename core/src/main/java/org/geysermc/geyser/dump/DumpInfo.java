@@ -28,6 +28,7 @@ package org.geysermc.geyser.dump;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.CacheStats;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
@@ -41,11 +42,20 @@ import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.GeyserApi;
 import org.geysermc.geyser.api.extension.Extension;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.entity.GeyserDirtyMetadata;
+import org.geysermc.geyser.network.CompressionPolicy;
 import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.network.netty.AdmissionController;
+import org.geysermc.geyser.network.netty.LocalSession;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.UpstreamSession;
+import org.geysermc.geyser.skin.SkinManager;
 import org.geysermc.geyser.text.AsteriskSerializer;
+import org.geysermc.geyser.translator.text.MessageTranslator;
 import org.geysermc.geyser.util.CpuUtils;
 import org.geysermc.geyser.util.FileUtils;
+import org.geysermc.geyser.util.LatencyHistogram;
+import org.geysermc.geyser.util.LoginEncryptionUtils;
 import org.geysermc.geyser.util.WebUtils;
 
 import java.io.File;
@@ -84,6 +94,15 @@ public class DumpInfo {
     private final BootstrapDumpInfo bootstrapInfo;
     private final FlagsInfo flagsInfo;
     private final List<ExtensionInfo> extensionInfo;
+    private final MessageCacheInfo messageCacheInfo;
+    private final BedrockListenerInfo bedrockListenerInfo;
+    private final CompressionInfo compressionInfo;
+    private final LoginInfo loginInfo;
+    private final UpstreamSession.BatchStats upstreamBatchInfo;
+    private final AdmissionController.AdmissionStats admissionInfo;
+    private final LocalSession.BridgeStats.Snapshot localBridgeInfo;
+    private final SkinManager.TabListSkinStats tabListSkinInfo;
+    private final GeyserDirtyMetadata.MetadataStats entityMetadataInfo;
 
     public DumpInfo(boolean addLog) {
         this.versionInfo = new VersionInfo();
@@ -137,6 +156,16 @@ public class DumpInfo {
         for (Extension extension : GeyserApi.api().extensionManager().extensions()) {
             this.extensionInfo.add(new ExtensionInfo(extension.isEnabled(), extension.name(), extension.description().version(), extension.description().apiVersion(), extension.description().main(), extension.description().authors()));
         }
+
+        this.messageCacheInfo = new MessageCacheInfo();
+        this.bedrockListenerInfo = new BedrockListenerInfo();
+        this.compressionInfo = new CompressionInfo();
+        this.loginInfo = new LoginInfo();
+        this.upstreamBatchInfo = UpstreamSession.getBatchStats();
+        this.admissionInfo = GeyserImpl.getInstance().getGeyserServer() == null ? null : GeyserImpl.getInstance().getGeyserServer().getAdmissionController().getStats();
+        this.localBridgeInfo = LocalSession.getBridgeStats();
+        this.tabListSkinInfo = SkinManager.getTabListSkinStats();
+        this.entityMetadataInfo = GeyserDirtyMetadata.getStats();
     }
 
     @Getter
@@ -278,6 +307,45 @@ public class DumpInfo {
         }
     }
 
+    public record MessageCacheInfo(long size, long hits, long misses, long evictions) {
+        public MessageCacheInfo() {
+            this(MessageTranslator.getRenderedMessageCacheSize(), MessageTranslator.getRenderedMessageStats());
+        }
+
+        private MessageCacheInfo(long size, CacheStats stats) {
+            this(size, stats.hitCount(), stats.missCount(), stats.evictionCount());
+        }
+    }
+
+    /**
+     * @param receivedDatagrams the datagrams received by each bound Bedrock socket
+     */
+    public record BedrockListenerInfo(long[] receivedDatagrams) {
+        public BedrockListenerInfo() {
+            this(GeyserImpl.getInstance().getGeyserServer() == null ? new long[0] : GeyserImpl.getInstance().getGeyserServer().getReceivedDatagrams());
+        }
+    }
+
+    /**
+     * @param algorithms connection counts, bytes and time spent compressing for each compression choice
+     */
+    public record CompressionInfo(Map<String, CompressionPolicy.StatsSnapshot> algorithms) {
+        public CompressionInfo() {
+            this(GeyserImpl.getInstance().getGeyserServer() == null ? Map.of() : GeyserImpl.getInstance().getGeyserServer().getCompressionPolicy().getStats());
+        }
+    }
+
+    /**
+     * @param queueLatency time logins waited for a login thread
+     * @param cryptoLatency time spent validating logins and starting encryption
+     */
+    public record LoginInfo(int pending, long rejected, LatencyHistogram.Snapshot queueLatency, LatencyHistogram.Snapshot cryptoLatency) {
+        public LoginInfo() {
+            this(LoginEncryptionUtils.getPendingLogins(), LoginEncryptionUtils.getRejectedLogins(),
+                    LoginEncryptionUtils.getLoginQueueLatency().snapshot(), LoginEncryptionUtils.getLoginCryptoLatency().snapshot());
+        }
+    }
+
     public record ExtensionInfo(boolean enabled, String name, String version, String apiVersion, String main, List<String> authors) {
     }
 
@@ -26,35 +26,118 @@
 package org.geysermc.geyser.entity;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.cloudburstmc.protocol.bedrock.data.entity.EntityDataMap;
 import org.cloudburstmc.protocol.bedrock.data.entity.EntityDataType;
+import org.cloudburstmc.protocol.bedrock.data.entity.EntityFlag;
 
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A write-only wrapper for temporarily storing entity metadata that will be sent to Bedrock.
+ * <p>
+ * The values and flags last sent are kept as well, so a Java server re-sending the same metadata every tick (as is
+ * common for holograms and NPCs) doesn't result in a Bedrock packet every tick.
  */
 public final class GeyserDirtyMetadata {
+    private static final LongAdder VALUES_SENT = new LongAdder();
+    private static final LongAdder VALUES_SUPPRESSED = new LongAdder();
+    private static final LongAdder FLAGS_SENT = new LongAdder();
+    private static final LongAdder FLAGS_SUPPRESSED = new LongAdder();
+
     private final Map<EntityDataType<?>, Object> metadata = new Object2ObjectLinkedOpenHashMap<>();
+    /**
+     * The values the Bedrock client currently has for this entity, as far as we know.
+     */
+    private final Map<EntityDataType<?>, Object> sentMetadata = new Object2ObjectOpenHashMap<>();
+    private final EnumSet<EntityFlag> sentFlags = EnumSet.noneOf(EntityFlag.class);
+    /**
+     * If values and flags the client already has are left out.
+     */
+    private boolean suppressUnchanged = true;
 
     public <T> void put(EntityDataType<T> entityData, T value) {
         metadata.put(entityData, value);
     }
 
     /**
-     * Applies the contents of the dirty metadata into the input and clears the contents of our map.
+     * Applies the contents of the dirty metadata that the client doesn't already have into the input and clears the
+     * contents of our map.
+     *
+     * @return if anything was added to the input
      */
-    public void apply(EntityDataMap map) {
-        map.putAll(metadata);
+    public boolean apply(EntityDataMap map) {
+        boolean applied = false;
+        for (Map.Entry<EntityDataType<?>, Object> entry : metadata.entrySet()) {
+            Object value = entry.getValue();
+            if (Objects.equals(sentMetadata.put(entry.getKey(), value), value) && suppressUnchanged) {
+                VALUES_SUPPRESSED.increment();
+                continue;
+            }
+            map.put(entry.getKey(), value);
+            VALUES_SENT.increment();
+            applied = true;
+        }
         metadata.clear();
+        return applied;
     }
 
     public boolean hasEntries() {
         return !metadata.isEmpty();
     }
 
+    /**
+     * Checks the flags against those last sent, and if they differ, records them as sent.
+     *
+     * @return if the flags need to be sent to the client
+     */
+    public boolean updateSentFlags(EnumSet<EntityFlag> flags) {
+        if (suppressUnchanged && sentFlags.equals(flags)) {
+            FLAGS_SUPPRESSED.increment();
+            return false;
+        }
+        setSentFlags(flags);
+        return true;
+    }
+
+    /**
+     * Records the flags as sent, for when they are always sent such as in a spawn packet.
+     */
+    public void setSentFlags(EnumSet<EntityFlag> flags) {
+        sentFlags.clear();
+        sentFlags.addAll(flags);
+        FLAGS_SENT.increment();
+    }
+
+    /**
+     * Sets if values and flags the client already has are left out. Should be disabled if the client may change its
+     * own copy without telling us, such as its own player predicting movement; the Java server corrects a prediction
+     * by sending the value it had before, which would otherwise look unchanged.
+     */
+    public void setSuppressUnchanged(boolean suppressUnchanged) {
+        this.suppressUnchanged = suppressUnchanged;
+    }
+
+    /**
+     * Forgets what was last sent, as the client discards everything when an entity is removed.
+     */
+    public void clearSent() {
+        sentMetadata.clear();
+        sentFlags.clear();
+    }
+
     @Override
     public String toString() {
         return metadata.toString();
     }
+
+    public static MetadataStats getStats() {
+        return new MetadataStats(VALUES_SENT.sum(), VALUES_SUPPRESSED.sum(), FLAGS_SENT.sum(), FLAGS_SUPPRESSED.sum());
+    }
+
+    public record MetadataStats(long valuesSent, long valuesSuppressed, long flagsSent, long flagsSuppressed) {
+    }
 }
@@ -123,7 +123,7 @@ public class Entity implements GeyserEntity {
      * Indicates if flags have been updated and need to be sent to the client.
      */
     @Getter(AccessLevel.NONE)
-    @Setter(AccessLevel.PROTECTED) // For players
+    @Setter(AccessLevel.NONE)
     private boolean flagsDirty = false;
 
     public Entity(GeyserSession session, int entityId, long geyserId, UUID uuid, EntityDefinition<?> definition, Vector3f position, Vector3f motion, float yaw, float pitch, float headYaw) {
@@ -183,7 +183,7 @@ public class Entity implements GeyserEntity {
         valid = true;
         session.sendUpstreamPacket(addEntityPacket);
 
-        flagsDirty = false;
+        setFlagsSent();
 
         if (session.getGeyser().getConfig().isDebugMode()) {
             EntityType type = definition.entityType();
@@ -218,6 +218,7 @@ public class Entity implements GeyserEntity {
         session.sendUpstreamPacket(removeEntityPacket);
 
         valid = false;
+        dirtyMetadata.clearSent();
         return true;
     }
 
@@ -351,15 +352,26 @@ public class Entity implements GeyserEntity {
         if (dirtyMetadata.hasEntries() || flagsDirty) {
             SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
             entityDataPacket.setRuntimeEntityId(geyserId);
-            if (flagsDirty) {
+            // Flags can be changed and changed back before being sent
+            boolean sendFlags = flagsDirty && dirtyMetadata.updateSentFlags(flags);
+            if (sendFlags) {
                 entityDataPacket.getMetadata().putFlags(flags);
-                flagsDirty = false;
             }
-            dirtyMetadata.apply(entityDataPacket.getMetadata());
-            session.sendUpstreamPacket(entityDataPacket);
+            flagsDirty = false;
+            if (dirtyMetadata.apply(entityDataPacket.getMetadata()) || sendFlags) {
+                session.sendUpstreamPacket(entityDataPacket);
+            }
         }
     }
 
+    /**
+     * Should be called once the flags have been included in a spawn packet.
+     */
+    protected final void setFlagsSent() {
+        flagsDirty = false;
+        dirtyMetadata.setSentFlags(flags);
+    }
+
     public void setFlags(ByteEntityMetadata entityMetadata) {
         byte xd = entityMetadata.getPrimitiveValue();
         setFlag(EntityFlag.ON_FIRE, ((xd & 0x01) == 0x01) && !getFlag(EntityFlag.FIRE_IMMUNE)); // Otherwise immune entities sometimes flicker onfire
@@ -67,7 +67,7 @@ public class ItemEntity extends ThrowableEntity {
         itemPacket.getMetadata().putFlags(this.flags);
         dirtyMetadata.apply(itemPacket.getMetadata());
 
-        setFlagsDirty(false);
+        setFlagsSent();
 
         session.sendUpstreamPacket(itemPacket);
     }
@@ -145,7 +145,7 @@ public class PlayerEntity extends LivingEntity implements GeyserPlayerEntity {
         addPlayerPacket.getMetadata().putFlags(flags);
         dirtyMetadata.apply(addPlayerPacket.getMetadata());
 
-        setFlagsDirty(false);
+        setFlagsSent();
 
         valid = true;
         session.sendUpstreamPacket(addPlayerPacket);
@@ -414,16 +414,12 @@ public class PlayerEntity extends LivingEntity implements GeyserPlayerEntity {
             if (valid) {
                 // Already spawned - we still need to run the rest of this code because the spawn packet will be
                 // providing the information
-                SetEntityDataPacket packet = new SetEntityDataPacket();
-                packet.setRuntimeEntityId(geyserId);
-                packet.getMetadata().put(EntityDataTypes.SCORE, displayString);
-                session.sendUpstreamPacket(packet);
+                dirtyMetadata.put(EntityDataTypes.SCORE, displayString);
+                updateBedrockMetadata();
             }
         } else if (valid) {
-            SetEntityDataPacket packet = new SetEntityDataPacket();
-            packet.setRuntimeEntityId(geyserId);
-            packet.getMetadata().put(EntityDataTypes.SCORE, "");
-            session.sendUpstreamPacket(packet);
+            dirtyMetadata.put(EntityDataTypes.SCORE, "");
+            updateBedrockMetadata();
         }
     }
 
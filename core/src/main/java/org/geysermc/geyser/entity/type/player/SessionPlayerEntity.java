@@ -73,6 +73,8 @@ public class SessionPlayerEntity extends PlayerEntity {
         super(session, -1, 1, null, Vector3f.ZERO, Vector3f.ZERO, 0, 0, 0, null, null);
 
         valid = true;
+        // The client predicts gliding, swimming, sneaking and more on its own
+        dirtyMetadata.setSuppressUnchanged(false);
     }
 
     @Override
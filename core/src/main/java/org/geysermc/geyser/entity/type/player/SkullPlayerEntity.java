@@ -93,7 +93,7 @@ public class SkullPlayerEntity extends PlayerEntity {
         addPlayerPacket.getMetadata().putFlags(flags);
         dirtyMetadata.apply(addPlayerPacket.getMetadata());
 
-        setFlagsDirty(false);
+        setFlagsSent();
 
         valid = true;
         session.sendUpstreamPacket(addPlayerPacket);
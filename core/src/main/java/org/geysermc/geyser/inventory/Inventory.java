@@ -30,11 +30,13 @@ import com.github.steveice10.opennbt.tag.builtin.ByteTag;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.math.vector.Vector3i;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.cloudburstmc.protocol.bedrock.data.definitions.ItemDefinition;
+import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.item.Items;
 import org.geysermc.geyser.session.GeyserSession;
@@ -95,6 +97,15 @@ public abstract class Inventory {
     @Setter
     private boolean displayed = false;
 
+    /**
+     * The container items last sent to the Bedrock client, indexed by Bedrock slot, or null if we don't know what the
+     * client has. See {@link org.geysermc.geyser.inventory.updater.InventoryUpdater#sendContainerContents}.
+     */
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private ItemData @Nullable [] sentItems;
+
     protected Inventory(int id, int size, ContainerType containerType) {
         this("Inventory", id, size, containerType);
     }
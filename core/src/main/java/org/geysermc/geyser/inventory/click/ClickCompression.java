@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.inventory.click;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.inventory.GeyserItemStack;
+import org.geysermc.geyser.inventory.SlotType;
+import org.geysermc.geyser.util.InventoryUtils;
+
+/**
+ * Bedrock transfers are translated into one right click per item, which would send a Java click packet per item.
+ * If a run of identical right clicks places (or drops) exactly the entire cursor, it can be sent as a single left
+ * click with an identical result.
+ */
+final class ClickCompression {
+
+    /**
+     * @param click the click that is repeated
+     * @param runLength how many times the click is repeated
+     * @param cursor the cursor before the first click of the run
+     * @param slotType the type of the clicked slot, or null if clicking outside the window
+     * @param clicked the item in the clicked slot before the first click of the run, or null if clicking outside the window
+     * @return if the run can be sent as {@link #leftClickFor(Click)}
+     */
+    static boolean canCompress(Click click, int runLength, GeyserItemStack cursor, @Nullable SlotType slotType, @Nullable GeyserItemStack clicked) {
+        if (click != Click.RIGHT && click != Click.RIGHT_OUTSIDE) {
+            return false;
+        }
+        if (runLength <= 1 || cursor.isEmpty() || cursor.getAmount() != runLength) {
+            return false;
+        }
+
+        if (click == Click.RIGHT) {
+            if (slotType != SlotType.NORMAL || clicked == null) {
+                return false;
+            }
+            if (!clicked.isEmpty() && (!InventoryUtils.canStack(cursor, clicked)
+                    || clicked.getAmount() + runLength > cursor.asItem().maxStackSize())) {
+                // A left click would swap the items or leave some in the cursor
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Placing or dropping the entire cursor one by one is identical to doing it all at once.
+     */
+    static Click leftClickFor(Click rightClick) {
+        return rightClick == Click.RIGHT_OUTSIDE ? Click.LEFT_OUTSIDE : Click.LEFT;
+    }
+
+    private ClickCompression() {
+    }
+}
@@ -42,7 +42,6 @@ import org.jetbrains.annotations.Contract;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ListIterator;
 
 public final class ClickPlan {
     private final List<ClickAction> plan = new ArrayList<>();
@@ -99,9 +98,11 @@ public final class ClickPlan {
     public void execute(boolean refresh) {
         //update geyser inventory after simulation to avoid net id desync
         resetSimulation();
-        ListIterator<ClickAction> planIter = plan.listIterator();
-        while (planIter.hasNext()) {
-            ClickAction action = planIter.next();
+        int index = 0;
+        while (index < plan.size()) {
+            int runLength = compressibleRunLength(index);
+            ClickAction action = compress(plan.get(index), runLength);
+            index += runLength;
 
             if (action.slot != Click.OUTSIDE_SLOT && translator.getSlotType(action.slot) != SlotType.NORMAL) {
                 // Needed with Paper 1.16.5
@@ -125,7 +126,7 @@ public final class ClickPlan {
                 // The action must be simulated first as Java expects the new contents of the cursor (as of 1.18.1)
                 clickedItemStack = simulatedCursor.getItemStack();
             } else {
-                if (!planIter.hasNext() && refresh) {
+                if (index >= plan.size() && refresh) {
                     // Doesn't have the intended effect with state IDs since this won't cause a complete window refresh
                     // (It will eventually once state IDs desync, but this causes more problems than not)
                     clickedItemStack = InventoryUtils.REFRESH_ITEM;
@@ -162,6 +163,39 @@ public final class ClickPlan {
         finished = true;
     }
 
+    /**
+     * @return the click that is sent to the server in place of a run of clicks found by {@link #compressibleRunLength(int)}
+     */
+    private static ClickAction compress(ClickAction action, int runLength) {
+        if (runLength > 1) {
+            return new ClickAction(ClickCompression.leftClickFor(action.click), action.slot, action.force);
+        }
+        return action;
+    }
+
+    /**
+     * @param index the index in the plan of the first click of the run
+     * @return the amount of clicks that can be replaced with a single left click, or 1 if they can't be compressed
+     * @see ClickCompression
+     */
+    private int compressibleRunLength(int index) {
+        ClickAction action = plan.get(index);
+        int runLength = 1;
+        while (index + runLength < plan.size() && plan.get(index + runLength).equals(action)) {
+            runLength++;
+        }
+        if (runLength == 1) {
+            return 1;
+        }
+
+        boolean outside = action.slot == Click.OUTSIDE_SLOT;
+        if (ClickCompression.canCompress(action.click, runLength, simulatedCursor,
+                outside ? null : translator.getSlotType(action.slot), outside ? null : getItem(action.slot))) {
+            return runLength;
+        }
+        return 1;
+    }
+
     public GeyserItemStack getItem(int slot) {
         return simulatedItems.computeIfAbsent(slot, k -> inventory.getItem(slot).copy());
     }
@@ -25,6 +25,7 @@
 
 package org.geysermc.geyser.inventory.updater;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.protocol.bedrock.data.inventory.ContainerId;
 import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
 import org.cloudburstmc.protocol.bedrock.packet.InventoryContentPacket;
@@ -59,4 +60,76 @@ public class InventoryUpdater {
         }
         return false;
     }
+
+    /**
+     * Sends the contents of a container. If the client already has most of these items, only the slots that changed are
+     * sent - plugin menus commonly resend the whole container when one item changes.
+     */
+    protected static void sendContainerContents(GeyserSession session, Inventory inventory, ItemData[] bedrockItems) {
+        int[] changedSlots = changedSlots(inventory.getSentItems(), bedrockItems);
+        // Copied as the packets below may not have been written yet when this is next changed
+        inventory.setSentItems(bedrockItems.clone());
+
+        if (changedSlots == null) {
+            InventoryContentPacket contentPacket = new InventoryContentPacket();
+            contentPacket.setContainerId(inventory.getBedrockId());
+            contentPacket.setContents(Arrays.asList(bedrockItems));
+            session.sendUpstreamPacket(contentPacket);
+            return;
+        }
+
+        for (int slot : changedSlots) {
+            InventorySlotPacket slotPacket = new InventorySlotPacket();
+            slotPacket.setContainerId(inventory.getBedrockId());
+            slotPacket.setSlot(slot);
+            slotPacket.setItem(bedrockItems[slot]);
+            session.sendUpstreamPacket(slotPacket);
+        }
+    }
+
+    /**
+     * Sends a single container slot, and keeps track of it if the rest of the container is known.
+     */
+    protected static void sendContainerSlot(GeyserSession session, Inventory inventory, int bedrockSlot, ItemData item) {
+        ItemData[] sentItems = inventory.getSentItems();
+        if (sentItems != null && bedrockSlot < sentItems.length) {
+            sentItems[bedrockSlot] = item;
+        }
+
+        InventorySlotPacket slotPacket = new InventorySlotPacket();
+        slotPacket.setContainerId(inventory.getBedrockId());
+        slotPacket.setSlot(bedrockSlot);
+        slotPacket.setItem(item);
+        session.sendUpstreamPacket(slotPacket);
+    }
+
+    /**
+     * @return the Bedrock slots that differ from what was last sent, or null if a full content packet should be sent
+     * instead because the client's state is unknown or most slots changed
+     */
+    static int @Nullable [] changedSlots(ItemData @Nullable [] sentItems, ItemData[] bedrockItems) {
+        if (sentItems == null || sentItems.length != bedrockItems.length) {
+            return null;
+        }
+
+        int[] changedSlots = new int[bedrockItems.length];
+        int changed = 0;
+        for (int i = 0; i < bedrockItems.length; i++) {
+            if (!isSameItem(sentItems[i], bedrockItems[i])) {
+                if (++changed > bedrockItems.length / 2) {
+                    return null;
+                }
+                changedSlots[changed - 1] = i;
+            }
+        }
+        return Arrays.copyOf(changedSlots, changed);
+    }
+
+    private static boolean isSameItem(@Nullable ItemData sent, ItemData item) {
+        if (sent == item) {
+            return true;
+        }
+        // The net ID must match too, or the client would reject item stack requests for this slot
+        return sent != null && sent.getNetId() == item.getNetId() && sent.equals(item, true, true, true);
+    }
 }
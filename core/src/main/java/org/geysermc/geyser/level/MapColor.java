@@ -277,6 +277,17 @@ public enum MapColor {
 
     private static final MapColor[] VALUES = values();
 
+    /**
+     * ARGB values for every possible unsigned map color byte, so map data can be converted without enum lookups.
+     */
+    private static final int[] ARGB_BY_ID = new int[256];
+
+    static {
+        for (int i = 0; i < ARGB_BY_ID.length; i++) {
+            ARGB_BY_ID[i] = fromId(i).getARGB();
+        }
+    }
+
     private final int value;
 
     MapColor(int red, int green, int blue) {
@@ -297,4 +308,26 @@ public enum MapColor {
     public int getARGB() {
         return value;
     }
+
+    /**
+     * @param colorId an unsigned Java map color ID
+     * @return the Bedrock ARGB color of the ID
+     */
+    public static int toARGB(byte colorId) {
+        return ARGB_BY_ID[colorId & 0xFF];
+    }
+
+    /**
+     * Converts Java map color IDs into Bedrock ARGB colors.
+     *
+     * @param colorIds the map color IDs
+     * @return the ARGB colors, in the same order
+     */
+    public static int[] toARGB(byte[] colorIds) {
+        int[] colors = new int[colorIds.length];
+        for (int i = 0; i < colorIds.length; i++) {
+            colors[i] = ARGB_BY_ID[colorIds[i] & 0xFF];
+        }
+        return colors;
+    }
 }
\ No newline at end of file
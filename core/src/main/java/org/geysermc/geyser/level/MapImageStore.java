@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level;
+
+import com.github.steveice10.mc.protocol.data.game.level.map.MapData;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores converted map images shared between all sessions. Map art servers send the same full map image to every
+ * player, so each distinct image is only converted to ARGB once and every session references the same arrays.
+ */
+public final class MapImageStore {
+    /**
+     * The width and height of a full map image.
+     */
+    public static final int MAP_SIZE = 128;
+
+    private static final Cache<Key, MapImage> IMAGES = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Gets the shared image for the full map data, converting it if no session has received it yet.
+     *
+     * @param mapId the Java map ID
+     * @param colorIds the full 128x128 Java map color IDs; must not be modified afterwards
+     * @return the shared image
+     */
+    public static MapImage getFullImage(long mapId, byte[] colorIds) {
+        return getOrCreate(new Key(mapId, ByteBuffer.wrap(colorIds)), () -> new MapImage(colorIds, MapColor.toARGB(colorIds)));
+    }
+
+    /**
+     * Applies a partial map update on top of a full image. Only the updated region is converted; the rest of the
+     * colors are copied from the base image.
+     *
+     * @param mapId the Java map ID
+     * @param base the full image to patch
+     * @param patch the partial map data
+     * @return the shared image with the patch applied
+     */
+    public static MapImage patch(long mapId, MapImage base, MapData patch) {
+        byte[] colorIds = base.colorIds().clone();
+        byte[] patchIds = patch.getData();
+        for (int row = 0; row < patch.getRows(); row++) {
+            System.arraycopy(patchIds, row * patch.getColumns(), colorIds, (patch.getY() + row) * MAP_SIZE + patch.getX(), patch.getColumns());
+        }
+
+        return getOrCreate(new Key(mapId, ByteBuffer.wrap(colorIds)), () -> {
+            int[] colors = base.colors().clone();
+            for (int row = 0; row < patch.getRows(); row++) {
+                int patchOffset = row * patch.getColumns();
+                int offset = (patch.getY() + row) * MAP_SIZE + patch.getX();
+                for (int column = 0; column < patch.getColumns(); column++) {
+                    colors[offset + column] = MapColor.toARGB(patchIds[patchOffset + column]);
+                }
+            }
+            return new MapImage(colorIds, colors);
+        });
+    }
+
+    /**
+     * @return if the map data describes a region that fits inside a full map image
+     */
+    public static boolean isValidPatch(MapData data) {
+        return data.getX() >= 0 && data.getY() >= 0 && data.getColumns() >= 0 && data.getRows() >= 0
+                && data.getX() + data.getColumns() <= MAP_SIZE && data.getY() + data.getRows() <= MAP_SIZE
+                && data.getData().length >= data.getColumns() * data.getRows();
+    }
+
+    private static MapImage getOrCreate(Key key, Callable<MapImage> loader) {
+        try {
+            return IMAGES.get(key, loader);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * A converted map image. Both arrays are shared between sessions and must never be modified.
+     *
+     * @param colorIds the Java map color IDs
+     * @param colors the Bedrock ARGB colors
+     */
+    public record MapImage(byte[] colorIds, int[] colors) {
+    }
+
+    /**
+     * Map images are keyed by their full content, so hash collisions never return the wrong image.
+     */
+    private record Key(long mapId, ByteBuffer content) {
+    }
+
+    private MapImageStore() {
+    }
+}
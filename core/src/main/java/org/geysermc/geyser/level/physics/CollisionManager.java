@@ -47,6 +47,7 @@ import org.geysermc.geyser.util.BlockUtils;
 
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
 import java.util.Locale;
 
 public class CollisionManager {
@@ -87,6 +88,13 @@ public class CollisionManager {
      */
     private static final double INCORRECT_MOVEMENT_THRESHOLD = 0.08;
 
+    /**
+     * Collision boxes gathered for the current movement sweep, {@link BlockCollision#FLAT_BOX_STRIDE} doubles per box,
+     * already offset to their block position. Reused between sweeps to avoid allocating on every movement packet.
+     */
+    private double[] sweepBoxes = new double[BlockCollision.FLAT_BOX_STRIDE * 64];
+    private int sweepBoxCount;
+
     public CollisionManager(GeyserSession session) {
         this.session = session;
         this.playerBoundingBox = new BoundingBox(0, 0, 0, 0.6, 1.8, 0.6);
@@ -320,6 +328,10 @@ public class CollisionManager {
         BoundingBox movementBoundingBox = boundingBox.clone();
         movementBoundingBox.extend(movement);
         BlockPositionIterator iter = collidableBlocksIterator(movementBoundingBox);
+        if (checkWorld && session.getPistonCache().getPistons().isEmpty()) {
+            // Nothing is moving, so every candidate box can be looked up once for the whole movement
+            return sweepMovementForCollisions(movementX, movementY, movementZ, boundingBox, iter);
+        }
         if (Math.abs(movementY) > CollisionManager.COLLISION_TOLERANCE) {
             movementY = computeCollisionOffset(boundingBox, Axis.Y, movementY, iter, checkWorld);
             boundingBox.translate(0, movementY, 0);
@@ -342,6 +354,128 @@ public class CollisionManager {
         return Vector3d.from(movementX, movementY, movementZ);
     }
 
+    /**
+     * Identical to the per-block path in {@link #correctMovementForCollisions(Vector3d, BoundingBox, boolean)}, but
+     * gathers all world collision boxes for the movement once and resolves each axis over the gathered primitive array.
+     * Only valid when there are no moving piston blocks, as those are checked per position.
+     */
+    private Vector3d sweepMovementForCollisions(double movementX, double movementY, double movementZ, BoundingBox boundingBox, BlockPositionIterator iter) {
+        gatherCollisionBoxes(iter);
+
+        if (Math.abs(movementY) > CollisionManager.COLLISION_TOLERANCE) {
+            movementY = computeSweepOffset(boundingBox, Axis.Y, movementY);
+            boundingBox.translate(0, movementY, 0);
+        }
+        boolean checkZFirst = Math.abs(movementZ) > Math.abs(movementX);
+        if (checkZFirst && Math.abs(movementZ) > CollisionManager.COLLISION_TOLERANCE) {
+            movementZ = computeSweepOffset(boundingBox, Axis.Z, movementZ);
+            boundingBox.translate(0, 0, movementZ);
+        }
+        if (Math.abs(movementX) > CollisionManager.COLLISION_TOLERANCE) {
+            movementX = computeSweepOffset(boundingBox, Axis.X, movementX);
+            boundingBox.translate(movementX, 0, 0);
+        }
+        if (!checkZFirst && Math.abs(movementZ) > CollisionManager.COLLISION_TOLERANCE) {
+            movementZ = computeSweepOffset(boundingBox, Axis.Z, movementZ);
+            boundingBox.translate(0, 0, movementZ);
+        }
+
+        boundingBox.translate(-movementX, -movementY, -movementZ);
+        return Vector3d.from(movementX, movementY, movementZ);
+    }
+
+    /**
+     * Looks up every block in the iterator once and copies their collision boxes into {@link #sweepBoxes},
+     * keeping the iteration order so offsets resolve exactly as they would block by block.
+     */
+    private void gatherCollisionBoxes(BlockPositionIterator iter) {
+        int[] blocks = session.getGeyser().getWorldManager().getBlocksAt(session, iter);
+        int count = 0;
+        for (iter.reset(); iter.hasNext(); iter.next()) {
+            BlockCollision blockCollision = BlockUtils.getCollision(blocks[iter.getIteration()]);
+            if (blockCollision == null || blockCollision instanceof ScaffoldingCollision) {
+                continue;
+            }
+            sweepBoxes = appendCollisionBoxes(sweepBoxes, count, blockCollision, iter.getX(), iter.getY(), iter.getZ());
+            count += blockCollision.getFlatBoundingBoxes().length / BlockCollision.FLAT_BOX_STRIDE;
+        }
+        sweepBoxCount = count;
+    }
+
+    private double computeSweepOffset(BoundingBox boundingBox, Axis axis, double offset) {
+        return computeSweepOffset(sweepBoxes, sweepBoxCount, boundingBox, axis, offset);
+    }
+
+    /**
+     * Copies the boxes of a block collision after the first {@code count} boxes of {@code boxes}, offset to the given
+     * block position.
+     *
+     * @return the array holding the boxes, which is a larger copy if they did not fit
+     */
+    static double[] appendCollisionBoxes(double[] boxes, int count, BlockCollision blockCollision, double x, double y, double z) {
+        int stride = BlockCollision.FLAT_BOX_STRIDE;
+        double[] blockBoxes = blockCollision.getFlatBoundingBoxes();
+        int required = count * stride + blockBoxes.length;
+        if (required > boxes.length) {
+            boxes = Arrays.copyOf(boxes, Math.max(boxes.length * 2, required));
+        }
+
+        for (int i = 0; i < blockBoxes.length; i += stride) {
+            int index = count * stride + i;
+            boxes[index] = blockBoxes[i] + x;
+            boxes[index + 1] = blockBoxes[i + 1] + y;
+            boxes[index + 2] = blockBoxes[i + 2] + z;
+            boxes[index + 3] = blockBoxes[i + 3];
+            boxes[index + 4] = blockBoxes[i + 4];
+            boxes[index + 5] = blockBoxes[i + 5];
+            boxes[index + 6] = blockBoxes[i + 6] + x;
+            boxes[index + 7] = blockBoxes[i + 7] + y;
+            boxes[index + 8] = blockBoxes[i + 8] + z;
+            boxes[index + 9] = blockBoxes[i + 9] + x;
+            boxes[index + 10] = blockBoxes[i + 10] + y;
+            boxes[index + 11] = blockBoxes[i + 11] + z;
+        }
+        return boxes;
+    }
+
+    /**
+     * The primitive equivalent of {@link BoundingBox#getMaxOffset(double, double, double, BoundingBox, Axis, double)}
+     * applied to the first {@code boxCount} boxes in order.
+     */
+    static double computeSweepOffset(double[] boxes, int boxCount, BoundingBox boundingBox, Axis axis, double offset) {
+        int axisIndex = axis.ordinal();
+        double[] middle = {boundingBox.getMiddleX(), boundingBox.getMiddleY(), boundingBox.getMiddleZ()};
+        double[] size = {boundingBox.getSizeX(), boundingBox.getSizeY(), boundingBox.getSizeZ()};
+        double movingMin = middle[axisIndex] - size[axisIndex] / 2;
+        double movingMax = middle[axisIndex] + size[axisIndex] / 2;
+
+        int stride = BlockCollision.FLAT_BOX_STRIDE;
+        for (int i = 0; i < boxCount * stride; i += stride) {
+            // Make sure that the bounding box overlaps in the other axes
+            if ((axisIndex != 0 && Math.abs(boxes[i] - middle[0]) * 2 >= (boxes[i + 3] + size[0])) ||
+                    (axisIndex != 1 && Math.abs(boxes[i + 1] - middle[1]) * 2 >= (boxes[i + 4] + size[1])) ||
+                    (axisIndex != 2 && Math.abs(boxes[i + 2] - middle[2]) * 2 >= (boxes[i + 5] + size[2]))) {
+                continue;
+            }
+
+            if (offset > 0) {
+                double distance = boxes[i + 6 + axisIndex] - movingMax;
+                if (distance >= -2.0 * COLLISION_TOLERANCE) {
+                    offset = Math.min(distance, offset);
+                }
+            } else if (offset < 0) {
+                double distance = movingMin - boxes[i + 9 + axisIndex];
+                if (distance >= -2.0 * COLLISION_TOLERANCE) {
+                    offset = Math.max(-distance, offset);
+                }
+            }
+            if (Math.abs(offset) < COLLISION_TOLERANCE) {
+                return 0;
+            }
+        }
+        return offset;
+    }
+
     private double computeCollisionOffset(BoundingBox boundingBox, Axis axis, double offset, BlockPositionIterator iter, boolean checkWorld) {
         for (iter.reset(); iter.hasNext(); iter.next()) {
             int x = iter.getX();
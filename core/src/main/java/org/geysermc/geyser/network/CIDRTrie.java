@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * A binary prefix trie of IPv4 and IPv6 subnets, compiled once so a lookup costs at most one step per address bit
+ * regardless of how many subnets it holds. Accepts the same address formats as {@link CIDRMatcher}.
+ */
+public final class CIDRTrie {
+    private static final int NO_CHILD = -1;
+
+    /**
+     * Children of each node, indexed by node; node 0 is the IPv4 root and node 1 the IPv6 root.
+     */
+    private final int[] zeroChildren;
+    private final int[] oneChildren;
+    /**
+     * Whether a subnet ends at each node, so every address below it matches.
+     */
+    private final boolean[] terminal;
+
+    public CIDRTrie(List<String> addresses) {
+        IntArrayList zeros = new IntArrayList();
+        IntArrayList ones = new IntArrayList();
+        IntArrayList terminals = new IntArrayList();
+        // The two roots
+        for (int i = 0; i < 2; i++) {
+            zeros.add(NO_CHILD);
+            ones.add(NO_CHILD);
+            terminals.add(0);
+        }
+
+        for (String address : addresses) {
+            String[] split = address.split("/", 2);
+            byte[] bytes;
+            try {
+                bytes = InetAddress.getByName(split[0]).getAddress();
+            } catch (UnknownHostException e) {
+                throw new RuntimeException(e);
+            }
+            int maxBits = bytes.length * 8;
+            int prefixLength = split.length == 2 ? Math.max(0, Math.min(Integer.parseInt(split[1]), maxBits)) : maxBits;
+
+            int node = bytes.length == 4 ? 0 : 1;
+            for (int bit = 0; bit < prefixLength && terminals.getInt(node) == 0; bit++) {
+                IntArrayList children = bit(bytes, bit) ? ones : zeros;
+                int child = children.getInt(node);
+                if (child == NO_CHILD) {
+                    child = terminals.size();
+                    zeros.add(NO_CHILD);
+                    ones.add(NO_CHILD);
+                    terminals.add(0);
+                    children.set(node, child);
+                }
+                node = child;
+            }
+            terminals.set(node, 1);
+        }
+
+        this.zeroChildren = zeros.toIntArray();
+        this.oneChildren = ones.toIntArray();
+        this.terminal = new boolean[terminals.size()];
+        for (int i = 0; i < this.terminal.length; i++) {
+            this.terminal[i] = terminals.getInt(i) != 0;
+        }
+    }
+
+    public boolean matches(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        int node = address instanceof Inet4Address ? 0 : 1;
+        int bits = bytes.length * 8;
+        for (int bit = 0; ; bit++) {
+            if (terminal[node]) {
+                return true;
+            }
+            if (bit == bits) {
+                return false;
+            }
+            node = bit(bytes, bit) ? oneChildren[node] : zeroChildren[node];
+            if (node == NO_CHILD) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean bit(byte[] bytes, int index) {
+        return (bytes[index >> 3] & (0x80 >> (index & 7))) != 0;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import org.cloudburstmc.protocol.bedrock.data.PacketCompressionAlgorithm;
+import org.geysermc.geyser.GeyserLogger;
+import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.network.netty.handler.CompressionStatsHandler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * Chooses the compression used for each Bedrock connection, from the configured address rules, the client's protocol
+ * version and the current CPU load, and keeps statistics on how each choice performs.
+ */
+public final class CompressionPolicy {
+    /**
+     * The name Cloudburst gives the compression codec in a Bedrock channel pipeline.
+     */
+    private static final String COMPRESSION_CODEC_NAME = "compression-codec";
+    /**
+     * Snappy was added alongside network settings negotiation, in 1.19.30.
+     */
+    private static final int SNAPPY_PROTOCOL_VERSION = 554;
+    private static final int DEFAULT_THRESHOLD = 512;
+    /**
+     * The largest threshold the network settings packet can hold; effectively asks the client not to compress.
+     */
+    private static final int NO_COMPRESSION_THRESHOLD = 0xFFFF;
+    private static final long CPU_SAMPLE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<Rule> rules;
+    private final Choice defaultChoice;
+    private final double cpuThreshold;
+    private final Map<Mode, Stats> stats = new EnumMap<>(Mode.class);
+
+    private volatile double cpuLoad;
+    private volatile long lastCpuSample;
+
+    public CompressionPolicy(GeyserConfiguration.IBedrockConfiguration config, GeyserLogger logger) {
+        this.rules = new ArrayList<>();
+        for (GeyserConfiguration.ICompressionRule rule : config.getCompressionRules()) {
+            Mode mode = Mode.fromName(rule.getAlgorithm());
+            if (mode == null) {
+                logger.warning("Unknown compression algorithm " + rule.getAlgorithm() + " in compression-rules; expected zlib, snappy or none");
+                continue;
+            }
+            List<CIDRMatcher> matchers = rule.getAddresses().stream().map(CIDRMatcher::new).toList();
+            this.rules.add(new Rule(matchers, new Choice(mode, rule.getLevel())));
+        }
+        this.defaultChoice = new Choice(Mode.ZLIB, config.getCompressionLevel());
+        this.cpuThreshold = config.getCompressionCpuThreshold();
+
+        for (Mode mode : Mode.values()) {
+            this.stats.put(mode, new Stats());
+        }
+    }
+
+    /**
+     * @param address the client's address, after PROXY protocol
+     * @param protocolVersion the protocol version the client requested network settings with
+     */
+    public Choice choose(InetSocketAddress address, int protocolVersion) {
+        Choice choice = null;
+        for (Rule rule : this.rules) {
+            if (rule.matches(address)) {
+                choice = rule.choice();
+                break;
+            }
+        }
+
+        if (choice == null) {
+            choice = this.defaultChoice;
+            if (this.cpuThreshold < 1 && cpuLoad() > this.cpuThreshold) {
+                choice = new Choice(Mode.SNAPPY, choice.level());
+            }
+        }
+
+        if (choice.mode() == Mode.SNAPPY && protocolVersion < SNAPPY_PROTOCOL_VERSION) {
+            choice = this.defaultChoice;
+        }
+        return choice;
+    }
+
+    /**
+     * Records the choice made for a channel, and measures its compression from now on. Must be called on the channel's
+     * event loop, after compression has been enabled.
+     */
+    public void track(Channel channel, Choice choice) {
+        Stats stats = this.stats.get(choice.mode());
+        stats.connections.increment();
+
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline.get(COMPRESSION_CODEC_NAME) == null) {
+            return;
+        }
+        // Outbound writes travel towards the head, so the handler after the codec sees batches before compression
+        CompressionStatsHandler uncompressed = new CompressionStatsHandler(stats, null);
+        pipeline.addAfter(COMPRESSION_CODEC_NAME, CompressionStatsHandler.UNCOMPRESSED_NAME, uncompressed);
+        pipeline.addBefore(COMPRESSION_CODEC_NAME, CompressionStatsHandler.COMPRESSED_NAME, new CompressionStatsHandler(stats, uncompressed));
+    }
+
+    public Map<String, StatsSnapshot> getStats() {
+        Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<Mode, Stats> entry : this.stats.entrySet()) {
+            snapshots.put(entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue().snapshot());
+        }
+        return snapshots;
+    }
+
+    private double cpuLoad() {
+        long now = System.nanoTime();
+        if (now - this.lastCpuSample > CPU_SAMPLE_INTERVAL) {
+            OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+            if (bean instanceof com.sun.management.OperatingSystemMXBean sunBean) {
+                this.cpuLoad = sunBean.getCpuLoad();
+            } else {
+                // Not a load fraction, but scaled to one per core it's the closest we have
+                this.cpuLoad = bean.getSystemLoadAverage() / bean.getAvailableProcessors();
+            }
+            this.lastCpuSample = now;
+        }
+        return this.cpuLoad;
+    }
+
+    public enum Mode {
+        ZLIB,
+        SNAPPY,
+        NONE;
+
+        private static Mode fromName(String name) {
+            for (Mode mode : values()) {
+                if (mode.name().equalsIgnoreCase(name)) {
+                    return mode;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @param level the zlib level; ignored for Snappy
+     */
+    public record Choice(Mode mode, int level) {
+        public PacketCompressionAlgorithm algorithm() {
+            // No compression is zlib storing blocks as-is, which costs little more than a copy
+            return mode == Mode.SNAPPY ? PacketCompressionAlgorithm.SNAPPY : PacketCompressionAlgorithm.ZLIB;
+        }
+
+        public int compressionLevel() {
+            return mode == Mode.NONE ? Deflater.NO_COMPRESSION : level;
+        }
+
+        public int threshold() {
+            return mode == Mode.NONE ? NO_COMPRESSION_THRESHOLD : DEFAULT_THRESHOLD;
+        }
+    }
+
+    private record Rule(List<CIDRMatcher> matchers, Choice choice) {
+        boolean matches(InetSocketAddress address) {
+            for (CIDRMatcher matcher : matchers) {
+                if (matcher.matches(address.getAddress())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static final class Stats {
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder uncompressedBytes = new LongAdder();
+        private final LongAdder compressedBytes = new LongAdder();
+        private final LongAdder compressionNanos = new LongAdder();
+
+        public void record(int uncompressedBytes, int compressedBytes, long compressionNanos) {
+            this.uncompressedBytes.add(uncompressedBytes);
+            this.compressedBytes.add(compressedBytes);
+            this.compressionNanos.add(compressionNanos);
+        }
+
+        private StatsSnapshot snapshot() {
+            long uncompressed = uncompressedBytes.sum();
+            long compressed = compressedBytes.sum();
+            return new StatsSnapshot(connections.sum(), uncompressed, compressed,
+                    TimeUnit.NANOSECONDS.toMillis(compressionNanos.sum()), uncompressed == 0 ? 0 : (double) compressed / uncompressed);
+        }
+    }
+
+    /**
+     * @param ratio compressed bytes over uncompressed bytes
+     */
+    public record StatsSnapshot(long connections, long uncompressedBytes, long compressedBytes, long compressionMillis, double ratio) {
+    }
+}
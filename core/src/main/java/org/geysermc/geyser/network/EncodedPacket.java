@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.cloudburstmc.protocol.bedrock.codec.BedrockCodec;
+import org.cloudburstmc.protocol.bedrock.codec.BedrockCodecHelper;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.UnknownPacket;
+import org.geysermc.geyser.session.GeyserSession;
+
+/**
+ * A Bedrock packet serialized once for one protocol version, which can then be sent to any number of sessions on that
+ * version without serializing it again. Only suitable for packets whose encoding doesn't depend on per-session state.
+ */
+public final class EncodedPacket {
+    private final int protocolVersion;
+    private final int packetId;
+    /**
+     * Never modified after encoding; every send wraps it without copying.
+     */
+    private final byte[] payload;
+
+    private EncodedPacket(int protocolVersion, int packetId, byte[] payload) {
+        this.protocolVersion = protocolVersion;
+        this.packetId = packetId;
+        this.payload = payload;
+    }
+
+    /**
+     * Serializes a packet with the codec and definitions of the given session.
+     */
+    public static EncodedPacket encode(GeyserSession session, BedrockPacket packet) {
+        BedrockCodec codec = session.getUpstream().getSession().getCodec();
+        BedrockCodecHelper helper = session.getUpstream().getCodecHelper();
+
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.ioBuffer();
+        try {
+            codec.tryEncode(helper, buffer, packet);
+            return new EncodedPacket(codec.getProtocolVersion(), codec.getPacketDefinition(packet.getClass()).getId(), ByteBufUtil.getBytes(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    public int protocolVersion() {
+        return protocolVersion;
+    }
+
+    public int size() {
+        return payload.length;
+    }
+
+    /**
+     * @return a new packet sharing this payload, which is written to the batch as-is
+     */
+    public BedrockPacket toPacket() {
+        UnknownPacket packet = new UnknownPacket();
+        packet.setPacketId(packetId);
+        packet.setPayload(Unpooled.wrappedBuffer(payload));
+        return packet;
+    }
+
+    public void sendTo(GeyserSession session) {
+        if (session.getUpstream().getProtocolVersion() != protocolVersion) {
+            throw new IllegalArgumentException("Packet encoded for protocol " + protocolVersion + " but session uses " + session.getUpstream().getProtocolVersion());
+        }
+        session.sendUpstreamPacket(toPacket());
+    }
+}
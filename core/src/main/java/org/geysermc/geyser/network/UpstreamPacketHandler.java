@@ -27,6 +27,7 @@ package org.geysermc.geyser.network;
 
 import io.netty.buffer.Unpooled;
 import org.cloudburstmc.protocol.bedrock.BedrockDisconnectReasons;
+import org.cloudburstmc.protocol.bedrock.BedrockServerSession;
 import org.cloudburstmc.protocol.bedrock.codec.BedrockCodec;
 import org.cloudburstmc.protocol.bedrock.data.ExperimentData;
 import org.cloudburstmc.protocol.bedrock.data.PacketCompressionAlgorithm;
@@ -74,6 +75,7 @@ import java.util.OptionalInt;
 public class UpstreamPacketHandler extends LoggingPacketHandler {
 
     private boolean networkSettingsRequested = false;
+    private boolean loginReceived = false;
     private final Deque<String> packsToSent = new ArrayDeque<>();
 
     private SessionLoadResourcePacksEventImpl resourcePackLoadEvent;
@@ -137,15 +139,21 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         }
 
         // New since 1.19.30 - sent before login packet
-        PacketCompressionAlgorithm algorithm = PacketCompressionAlgorithm.ZLIB;
+        CompressionPolicy compressionPolicy = this.geyser.getGeyserServer().getCompressionPolicy();
+        CompressionPolicy.Choice compression = compressionPolicy.choose(session.getUpstream().getAddress(), packet.getProtocolVersion());
+        PacketCompressionAlgorithm algorithm = compression.algorithm();
 
         NetworkSettingsPacket responsePacket = new NetworkSettingsPacket();
         responsePacket.setCompressionAlgorithm(algorithm);
-        responsePacket.setCompressionThreshold(512);
+        responsePacket.setCompressionThreshold(compression.threshold());
         session.sendUpstreamPacketImmediately(responsePacket);
 
-        session.getUpstream().getSession().setCompression(algorithm);
-        session.getUpstream().getSession().setCompressionLevel(this.geyser.getConfig().getBedrock().getCompressionLevel());
+        BedrockServerSession upstream = session.getUpstream().getSession();
+        upstream.setCompression(algorithm);
+        if (algorithm == PacketCompressionAlgorithm.ZLIB) {
+            upstream.setCompressionLevel(compression.compressionLevel());
+        }
+        compressionPolicy.track(upstream.getPeer().getChannel(), compression);
         networkSettingsRequested = true;
         return PacketSignal.HANDLED;
     }
@@ -163,17 +171,29 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
             return PacketSignal.HANDLED;
         }
 
+        if (loginReceived) {
+            // Each login costs a round of cryptography; don't let a client queue more than one
+            return PacketSignal.HANDLED;
+        }
+        loginReceived = true;
+
         // Set the block translation based off of version
         session.setBlockMappings(BlockRegistries.BLOCKS.forVersion(loginPacket.getProtocolVersion()));
         session.setItemMappings(Registries.ITEMS.forVersion(loginPacket.getProtocolVersion()));
 
-        LoginEncryptionUtils.encryptPlayerConnection(session, loginPacket);
-
-        if (session.isClosed()) {
-            // Can happen if Xbox validation fails
-            return PacketSignal.HANDLED;
-        }
+        // During a wave of joins this may wait for other logins to finish first
+        geyser.getGeyserServer().getAdmissionController().admitLogin(session, () -> {
+            if (!session.isClosed()) {
+                LoginEncryptionUtils.encryptPlayerConnection(session, loginPacket, this::onEncryptionStarted);
+            }
+        });
+        return PacketSignal.HANDLED;
+    }
 
+    /**
+     * Continues the login once it has been validated. Called on the network thread.
+     */
+    private void onEncryptionStarted() {
         PlayStatusPacket playStatus = new PlayStatusPacket();
         playStatus.setStatus(PlayStatusPacket.Status.LOGIN_SUCCESS);
         session.sendUpstreamPacket(playStatus);
@@ -195,7 +215,6 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         session.sendUpstreamPacket(resourcePacksInfo);
 
         GeyserLocale.loadGeyserLocale(session.locale());
-        return PacketSignal.HANDLED;
     }
 
     @Override
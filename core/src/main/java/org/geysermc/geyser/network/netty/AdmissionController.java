@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network.netty;
+
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Smooths out waves of players joining at once, such as everyone reconnecting after the Java server restarts, so
+ * players already online stay responsive. New RakNet connections are rate limited with a token bucket, and only so
+ * many logins may be in progress at once; the rest wait their turn.
+ */
+public final class AdmissionController {
+    /**
+     * New connections allowed per second on average, or 0 for no limit.
+     */
+    private static final double CONNECTIONS_PER_SECOND = Double.parseDouble(System.getProperty("Geyser.ConnectionsPerSecond", "0"));
+    /**
+     * How many connections may arrive at once before the rate limit applies.
+     */
+    private static final int CONNECTION_BURST = Integer.getInteger("Geyser.ConnectionBurst", 20);
+    /**
+     * Logins that may be in progress at once, from the login packet until the Java server accepts the player,
+     * or 0 for no limit.
+     */
+    private static final int MAX_CONCURRENT_LOGINS = Integer.getInteger("Geyser.MaxConcurrentLogins", 0);
+    /**
+     * A waiting login is turned away after this long, and a login in progress stops counting against the limit, so a
+     * player left on a form can't hold a slot forever.
+     */
+    private static final long LOGIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(Integer.getInteger("Geyser.LoginQueueTimeout", 30));
+    /**
+     * A client sends several connection requests while probing for its MTU, and resends them if they go unanswered.
+     * Once an address is admitted, its requests within this window don't use up the budget again.
+     */
+    private static final long ADMITTED_ADDRESS_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final long connectionIntervalNanos;
+    private long connectionBudgetTime = System.nanoTime();
+    /**
+     * Recently admitted addresses and when they were admitted, oldest first.
+     */
+    private final Map<InetSocketAddress, Long> admittedAddresses = new LinkedHashMap<>();
+
+    /**
+     * Sessions holding a login slot, and when they took it.
+     */
+    private final Map<GeyserSession, Long> activeLogins = new HashMap<>();
+    private final Deque<WaitingLogin> waitingLogins = new ArrayDeque<>();
+
+    private final LongAdder droppedConnections = new LongAdder();
+    private final LongAdder queuedLogins = new LongAdder();
+    private final LongAdder expiredLogins = new LongAdder();
+
+    public AdmissionController() {
+        this.connectionIntervalNanos = CONNECTIONS_PER_SECOND > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / CONNECTIONS_PER_SECOND) : 0;
+    }
+
+    /**
+     * Called for every RakNet connection request that passed {@link GeyserServer#onConnectionRequest(InetSocketAddress)}.
+     *
+     * @param address the address the request came from
+     * @return false if the request should be dropped; the client retries on its own, spreading the wave out
+     */
+    public boolean tryAdmitConnection(InetSocketAddress address) {
+        if (connectionIntervalNanos == 0) {
+            return true;
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            Iterator<Long> admittedAt = admittedAddresses.values().iterator();
+            while (admittedAt.hasNext() && now - admittedAt.next() > ADMITTED_ADDRESS_WINDOW_NANOS) {
+                admittedAt.remove();
+            }
+            if (admittedAddresses.containsKey(address)) {
+                // Another MTU probe or a retry of a connection that already got through
+                return true;
+            }
+
+            // The budget time moves forward by one interval per connection, and may lag behind now by at most the burst
+            long earliest = now - connectionIntervalNanos * CONNECTION_BURST;
+            long budgetTime = Math.max(connectionBudgetTime, earliest);
+            if (budgetTime > now) {
+                droppedConnections.increment();
+                return false;
+            }
+            connectionBudgetTime = budgetTime + connectionIntervalNanos;
+            admittedAddresses.put(address, now);
+            return true;
+        }
+    }
+
+    /**
+     * Runs the login now if a slot is free, or once one frees up.
+     *
+     * @param login run on the session's network thread
+     */
+    public void admitLogin(GeyserSession session, Runnable login) {
+        if (MAX_CONCURRENT_LOGINS <= 0) {
+            login.run();
+            return;
+        }
+
+        synchronized (this) {
+            if (activeLogins.size() >= MAX_CONCURRENT_LOGINS) {
+                waitingLogins.add(new WaitingLogin(session, login, System.nanoTime()));
+                queuedLogins.increment();
+                return;
+            }
+            activeLogins.put(session, System.nanoTime());
+        }
+        login.run();
+    }
+
+    /**
+     * Called once a session's login has finished, successfully or not, to hand its slot to the next waiting login.
+     */
+    public void onLoginFinished(GeyserSession session) {
+        if (MAX_CONCURRENT_LOGINS <= 0) {
+            return;
+        }
+
+        List<WaitingLogin> admitted;
+        synchronized (this) {
+            if (activeLogins.remove(session) == null) {
+                waitingLogins.removeIf(waiting -> waiting.session() == session);
+                return;
+            }
+            admitted = admitWaiting();
+        }
+        runAll(admitted);
+    }
+
+    /**
+     * Frees slots held for too long and turns away logins that waited too long. Meant to be scheduled periodically.
+     */
+    public void sweep() {
+        if (MAX_CONCURRENT_LOGINS <= 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        List<WaitingLogin> expired = new ArrayList<>();
+        List<WaitingLogin> admitted;
+        synchronized (this) {
+            activeLogins.values().removeIf(start -> now - start > LOGIN_TIMEOUT_NANOS);
+
+            Iterator<WaitingLogin> iterator = waitingLogins.iterator();
+            while (iterator.hasNext()) {
+                WaitingLogin waiting = iterator.next();
+                if (waiting.session().isClosed()) {
+                    iterator.remove();
+                } else if (now - waiting.queuedAt() > LOGIN_TIMEOUT_NANOS) {
+                    iterator.remove();
+                    expired.add(waiting);
+                }
+            }
+            admitted = admitWaiting();
+        }
+
+        for (WaitingLogin waiting : expired) {
+            expiredLogins.increment();
+            // Like logins, the disconnect runs on the session's own event loop rather than the scheduler thread
+            GeyserSession session = waiting.session();
+            session.getUpstream().getSession().getPeer().getChannel().eventLoop()
+                    .execute(() -> session.disconnect("disconnectionScreen.serverFull"));
+        }
+        runAll(admitted);
+    }
+
+    private List<WaitingLogin> admitWaiting() {
+        List<WaitingLogin> admitted = new ArrayList<>();
+        while (activeLogins.size() < MAX_CONCURRENT_LOGINS && !waitingLogins.isEmpty()) {
+            WaitingLogin next = waitingLogins.poll();
+            if (next.session().isClosed()) {
+                continue;
+            }
+            activeLogins.put(next.session(), System.nanoTime());
+            admitted.add(next);
+        }
+        return admitted;
+    }
+
+    private static void runAll(List<WaitingLogin> admitted) {
+        for (WaitingLogin waiting : admitted) {
+            waiting.session().getUpstream().getSession().getPeer().getChannel().eventLoop().execute(waiting.login());
+        }
+    }
+
+    public synchronized AdmissionStats getStats() {
+        return new AdmissionStats(activeLogins.size(), waitingLogins.size(), droppedConnections.sum(), queuedLogins.sum(), expiredLogins.sum());
+    }
+
+    private record WaitingLogin(GeyserSession session, Runnable login, long queuedAt) {
+    }
+
+    /**
+     * @param queuedLogins logins that had to wait for a slot
+     * @param expiredLogins logins turned away after waiting too long
+     */
+    public record AdmissionStats(int activeLogins, int waitingLogins, long droppedConnections, long queuedLogins, long expiredLogins) {
+    }
+}
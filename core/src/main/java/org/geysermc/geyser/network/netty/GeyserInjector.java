@@ -25,9 +25,12 @@
 
 package org.geysermc.geyser.network.netty;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPipeline;
 import lombok.Getter;
 import org.geysermc.geyser.GeyserBootstrap;
+import org.geysermc.geyser.network.netty.handler.FramingPlaceholder;
 
 import java.net.SocketAddress;
 
@@ -36,6 +39,14 @@ import java.net.SocketAddress;
  * by creating a local channel.
  */
 public abstract class GeyserInjector {
+    /**
+     * When enabled, packets cross the local channel without a length prefix: a local channel delivers each written
+     * buffer to its peer unchanged, so one buffer is always exactly one packet. Both {@link LocalSession} and the
+     * server pipeline swap their framing handlers for a {@link FramingPlaceholder}. Only used on platforms where
+     * {@link #supportsUnframedConnections()}.
+     */
+    public static final boolean UNFRAMED_LOCAL_CONNECTIONS = Boolean.getBoolean("Geyser.UnframedLocalConnections");
+
     /**
      * The local channel we can use to inject ourselves into the server without creating a TCP connection.
      */
@@ -45,6 +56,10 @@ public abstract class GeyserInjector {
      */
     @Getter
     protected SocketAddress serverSocketAddress;
+    /**
+     * If local connections to this server are unframed.
+     */
+    private boolean unframed;
 
     /**
      * @param bootstrap the bootstrap of the Geyser instance.
@@ -60,6 +75,15 @@ public abstract class GeyserInjector {
             return;
         }
 
+        if (UNFRAMED_LOCAL_CONNECTIONS) {
+            if (supportsUnframedConnections()) {
+                this.unframed = true;
+                LocalSession.setUnframed(true);
+            } else {
+                bootstrap.getGeyserLogger().warning("Unframed local connections are not supported on this platform; ignoring Geyser.UnframedLocalConnections");
+            }
+        }
+
         try {
             initializeLocalChannel0(bootstrap);
             bootstrap.getGeyserLogger().debug("Local injection succeeded!");
@@ -75,6 +99,33 @@ public abstract class GeyserInjector {
      */
     protected abstract void initializeLocalChannel0(GeyserBootstrap bootstrap) throws Exception;
 
+    /**
+     * @return if the server only ever adds and removes handlers next to its frame handlers, so they can be replaced
+     * with placeholders. Not the case if the server swaps its frame handlers out itself, such as for compression.
+     */
+    protected boolean supportsUnframedConnections() {
+        return true;
+    }
+
+    /**
+     * Replaces the server's frame decoder and encoder on a freshly initialized local channel with placeholders, if
+     * unframed local connections are enabled. Failing to find either is fatal for the channel, as {@link LocalSession}
+     * will not frame its packets.
+     */
+    protected void removeFraming(Channel channel, String decoderName, String encoderName) {
+        if (!unframed) {
+            return;
+        }
+
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline.get(decoderName) == null || pipeline.get(encoderName) == null) {
+            throw new IllegalStateException("Could not find frame handlers " + decoderName + " and " + encoderName
+                    + " in " + pipeline.names() + "; unframed local connections cannot be used on this server");
+        }
+        pipeline.replace(decoderName, decoderName, FramingPlaceholder.INSTANCE);
+        pipeline.replace(encoderName, encoderName, FramingPlaceholder.INSTANCE);
+    }
+
     public void shutdown() {
         if (localChannel != null && localChannel.channel().isOpen()) {
             try {
@@ -39,10 +39,9 @@ import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.unix.UnixChannelOption;
 import io.netty.util.concurrent.Future;
 import lombok.Getter;
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
 import org.cloudburstmc.netty.channel.raknet.RakChannelFactory;
 import org.cloudburstmc.netty.channel.raknet.config.RakChannelOption;
 import org.cloudburstmc.netty.handler.codec.raknet.server.RakServerOfflineHandler;
@@ -51,22 +50,27 @@ import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.command.defaults.ConnectionTestCommand;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.event.type.GeyserBedrockPingEventImpl;
-import org.geysermc.geyser.network.CIDRMatcher;
+import org.geysermc.geyser.network.CIDRTrie;
+import org.geysermc.geyser.network.CompressionPolicy;
 import org.geysermc.geyser.network.GameProtocol;
 import org.geysermc.geyser.network.GeyserServerInitializer;
+import org.geysermc.geyser.network.netty.handler.DatagramCounter;
 import org.geysermc.geyser.network.netty.handler.RakConnectionRequestHandler;
 import org.geysermc.geyser.network.netty.handler.RakPingHandler;
+import org.geysermc.geyser.network.netty.proxy.ProxiedAddressTable;
 import org.geysermc.geyser.network.netty.proxy.ProxyServerHandler;
 import org.geysermc.geyser.ping.GeyserPingInfo;
 import org.geysermc.geyser.ping.IGeyserPingPassthrough;
 import org.geysermc.geyser.skin.SkinProvider;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.translator.text.MessageTranslator;
+import org.geysermc.geyser.util.LoginEncryptionUtils;
 
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
@@ -86,6 +90,12 @@ public final class GeyserServer {
 
     private static final Transport TRANSPORT = compatibleTransport();
 
+    /**
+     * The amount of sockets to bind to the Bedrock address. With more than one, SO_REUSEPORT lets the kernel spread
+     * incoming datagrams over the sockets, and thus over multiple event loops. Only supported with Epoll.
+     */
+    private static final int REQUESTED_LISTEN_COUNT = Integer.getInteger("Geyser.BedrockListenCount", 1);
+
     /**
      * See {@link EventLoopGroup#shutdownGracefully(long, long, TimeUnit)}
      */
@@ -98,47 +108,102 @@ public final class GeyserServer {
     private EventLoopGroup playerGroup;
 
     @Getter
-    private final ExpiringMap<InetSocketAddress, InetSocketAddress> proxiedAddresses;
+    private final ProxiedAddressTable proxiedAddresses;
+    /**
+     * The PROXY protocol whitelist, or null if any address may send PROXY headers.
+     */
+    private final CIDRTrie proxyWhitelist;
 
-    private ChannelFuture bootstrapFuture;
+    @Getter
+    private final CompressionPolicy compressionPolicy;
+    @Getter
+    private final AdmissionController admissionController;
+
+    private ChannelFuture[] bootstrapFutures;
+    private final int listenCount;
+    /**
+     * Inbound datagram counters for each bound channel, in the same order as {@link #bootstrapFutures}.
+     */
+    private DatagramCounter[] datagramCounters;
 
     public GeyserServer(GeyserImpl geyser, int threadCount) {
         this.geyser = geyser;
         this.group = TRANSPORT.eventLoopGroupFactory().apply(threadCount);
 
+        if (REQUESTED_LISTEN_COUNT > 1 && !isReusePortAvailable()) {
+            this.geyser.getLogger().warning("Geyser.BedrockListenCount is set to " + REQUESTED_LISTEN_COUNT
+                    + ", but SO_REUSEPORT is only available with Epoll. Only one socket will be bound.");
+            this.listenCount = 1;
+        } else {
+            // Each channel is registered on the next event loop, so more channels than threads gain nothing
+            this.listenCount = Math.max(1, Math.min(REQUESTED_LISTEN_COUNT, threadCount));
+        }
+
         this.bootstrap = this.createBootstrap(this.group);
+        this.compressionPolicy = new CompressionPolicy(this.geyser.getConfig().getBedrock(), this.geyser.getLogger());
+        this.admissionController = new AdmissionController();
+        this.group.next().scheduleAtFixedRate(this.admissionController::sweep, 1, 1, TimeUnit.SECONDS);
 
         if (this.geyser.getConfig().getBedrock().isEnableProxyProtocol()) {
-            this.proxiedAddresses = ExpiringMap.builder()
-                    .expiration(30 + 1, TimeUnit.MINUTES)
-                    .expirationPolicy(ExpirationPolicy.ACCESSED).build();
+            ProxiedAddressTable proxiedAddresses = new ProxiedAddressTable(30 + 1, TimeUnit.MINUTES);
+            this.group.next().scheduleAtFixedRate(proxiedAddresses::sweep, 1, 1, TimeUnit.MINUTES);
+            this.proxiedAddresses = proxiedAddresses;
+
+            List<String> allowedProxyIPs = this.geyser.getConfig().getBedrock().getProxyProtocolWhitelistedIPs();
+            this.proxyWhitelist = allowedProxyIPs.isEmpty() ? null : new CIDRTrie(allowedProxyIPs);
         } else {
             this.proxiedAddresses = null;
+            this.proxyWhitelist = null;
         }
     }
 
     public CompletableFuture<Void> bind(InetSocketAddress address) {
-        CompletableFuture<Void> future = new CompletableFuture<>();
-        this.bootstrapFuture = this.bootstrap.bind(address).addListener(bindResult -> {
-            if (bindResult.cause() != null) {
-                future.completeExceptionally(bindResult.cause());
-                return;
+        this.bootstrapFutures = new ChannelFuture[this.listenCount];
+        this.datagramCounters = new DatagramCounter[this.listenCount];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[this.listenCount];
+        for (int i = 0; i < this.listenCount; i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            ChannelFuture bootstrapFuture = this.bootstrap.bind(address).addListener(bindResult -> {
+                if (bindResult.cause() != null) {
+                    future.completeExceptionally(bindResult.cause());
+                    return;
+                }
+                future.complete(null);
+            });
+            this.bootstrapFutures[i] = bootstrapFuture;
+            this.datagramCounters[i] = new DatagramCounter();
+            futures[i] = future;
+
+            // Every channel gets its own handlers, so they never contend across event loops
+            Channel channel = bootstrapFuture.channel();
+            channel.pipeline()
+                    .addFirst(RakConnectionRequestHandler.NAME, new RakConnectionRequestHandler(this))
+                    .addAfter(RakServerOfflineHandler.NAME, RakPingHandler.NAME, new RakPingHandler(this));
+
+            if (this.geyser.getConfig().getBedrock().isEnableProxyProtocol()) {
+                channel.pipeline().addFirst("proxy-protocol-decoder", new ProxyServerHandler());
             }
-            future.complete(null);
-        });
-
-        Channel channel = this.bootstrapFuture.channel();
-
-        // Add our ping handler
-        channel.pipeline()
-                .addFirst(RakConnectionRequestHandler.NAME, new RakConnectionRequestHandler(this))
-                .addAfter(RakServerOfflineHandler.NAME, RakPingHandler.NAME, new RakPingHandler(this));
+            channel.pipeline().addFirst(DatagramCounter.NAME, this.datagramCounters[i]);
+        }
 
-        if (this.geyser.getConfig().getBedrock().isEnableProxyProtocol()) {
-            channel.pipeline().addFirst("proxy-protocol-decoder", new ProxyServerHandler());
+        if (this.listenCount > 1) {
+            this.geyser.getLogger().debug("Binding " + this.listenCount + " Bedrock sockets with SO_REUSEPORT");
         }
+        return CompletableFuture.allOf(futures);
+    }
 
-        return future;
+    /**
+     * @return the amount of datagrams each bound Bedrock channel has received, to see how evenly the kernel spreads clients
+     */
+    public long[] getReceivedDatagrams() {
+        if (this.datagramCounters == null) {
+            return new long[0];
+        }
+        long[] received = new long[this.datagramCounters.length];
+        for (int i = 0; i < received.length; i++) {
+            received[i] = this.datagramCounters[i].getCount();
+        }
+        return received;
     }
 
     public void shutdown() {
@@ -151,10 +216,13 @@ public final class GeyserServer {
             future2.sync();
 
             SkinProvider.shutdown();
+            LoginEncryptionUtils.shutdown();
         } catch (InterruptedException e) {
             GeyserImpl.getInstance().getLogger().severe("Exception in shutdown process", e);
         }
-        this.bootstrapFuture.channel().closeFuture().syncUninterruptibly();
+        for (ChannelFuture bootstrapFuture : this.bootstrapFutures) {
+            bootstrapFuture.channel().closeFuture().syncUninterruptibly();
+        }
     }
 
     private ServerBootstrap createBootstrap(EventLoopGroup group) {
@@ -174,28 +242,24 @@ public final class GeyserServer {
         GeyserServerInitializer serverInitializer = new GeyserServerInitializer(this.geyser);
         playerGroup = serverInitializer.getEventLoopGroup();
         this.geyser.getLogger().debug("Setting MTU to " + this.geyser.getConfig().getMtu());
-        return new ServerBootstrap()
+        ServerBootstrap bootstrap = new ServerBootstrap()
                 .channelFactory(RakChannelFactory.server(TRANSPORT.datagramChannel()))
                 .group(group)
                 .option(RakChannelOption.RAK_HANDLE_PING, true)
                 .option(RakChannelOption.RAK_MAX_MTU, this.geyser.getConfig().getMtu())
                 .childHandler(serverInitializer);
+
+        if (this.listenCount > 1) {
+            bootstrap.option(UnixChannelOption.SO_REUSEPORT, true)
+                    // All sockets must report the same server to clients
+                    .option(RakChannelOption.RAK_GUID, ThreadLocalRandom.current().nextLong());
+        }
+        return bootstrap;
     }
 
     public boolean onConnectionRequest(InetSocketAddress inetSocketAddress) {
-        List<String> allowedProxyIPs = geyser.getConfig().getBedrock().getProxyProtocolWhitelistedIPs();
-        if (geyser.getConfig().getBedrock().isEnableProxyProtocol() && !allowedProxyIPs.isEmpty()) {
-            boolean isWhitelistedIP = false;
-            for (CIDRMatcher matcher : geyser.getConfig().getBedrock().getWhitelistedIPsMatchers()) {
-                if (matcher.matches(inetSocketAddress.getAddress())) {
-                    isWhitelistedIP = true;
-                    break;
-                }
-            }
-
-            if (!isWhitelistedIP) {
-                return false;
-            }
+        if (this.proxyWhitelist != null && !this.proxyWhitelist.matches(inetSocketAddress.getAddress())) {
+            return false;
         }
 
         String ip;
@@ -245,7 +309,7 @@ public final class GeyserServer {
                 .version(GameProtocol.DEFAULT_BEDROCK_CODEC.getMinecraftVersion()) // Required to not be empty as of 1.16.210.59. Can only contain . and numbers.
                 .ipv4Port(this.geyser.getConfig().getBedrock().port())
                 .ipv6Port(this.geyser.getConfig().getBedrock().port())
-                .serverId(bootstrapFuture.channel().config().getOption(RakChannelOption.RAK_GUID));
+                .serverId(bootstrapFutures[0].channel().config().getOption(RakChannelOption.RAK_GUID));
 
         if (config.isPassthroughMotd() && pingInfo != null && pingInfo.getDescription() != null) {
             String[] motd = MessageTranslator.convertMessageLenient(pingInfo.getDescription()).split("\n");
@@ -327,6 +391,10 @@ public final class GeyserServer {
         }
     }
 
+    private static boolean isReusePortAvailable() {
+        return TRANSPORT.datagramChannel() == EpollDatagramChannel.class;
+    }
+
     private static Transport compatibleTransport() {
         TransportHelper.TransportMethod transportMethod = TransportHelper.determineTransportMethod();
         if (transportMethod == TransportHelper.TransportMethod.EPOLL) {
@@ -337,6 +405,8 @@ public final class GeyserServer {
             return new Transport(KQueueDatagramChannel.class, KQueueEventLoopGroup::new);
         }
 
+        // io_uring is unsupported: the incubator transport is not shipped, and MCProtocolLib would pick it for Java
+        // connections too if it were
         // if (transportMethod == TransportHelper.TransportMethod.IO_URING) {
         //     return new Transport(IOUringDatagramChannel.class, IOUringEventLoopGroup::new);
         // }
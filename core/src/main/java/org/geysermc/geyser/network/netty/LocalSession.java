@@ -38,10 +38,15 @@ import io.netty.channel.*;
 import io.netty.channel.unix.PreferredDirectByteBufAllocator;
 import io.netty.handler.codec.haproxy.*;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.network.netty.handler.FramingPlaceholder;
+import org.geysermc.geyser.network.netty.handler.LocalBridgeStatsHandler;
 
 import java.net.Inet4Address;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manages a Minecraft Java session over our LocalChannel implementations.
@@ -49,16 +54,34 @@ import java.net.SocketAddress;
 public final class LocalSession extends TcpSession {
     private static DefaultEventLoopGroup DEFAULT_EVENT_LOOP_GROUP;
     private static PreferredDirectByteBufAllocator PREFERRED_DIRECT_BYTE_BUF_ALLOCATOR = null;
+    /**
+     * When enabled, per-packet codec timings are recorded for every local session.
+     */
+    private static final boolean MEASURE_BRIDGE = Boolean.getBoolean("Geyser.MeasureLocalBridge");
+    private static final BridgeStats BRIDGE_STATS = new BridgeStats();
+    /**
+     * If packets are sent without a length prefix. See {@link GeyserInjector#UNFRAMED_LOCAL_CONNECTIONS}.
+     */
+    private static boolean UNFRAMED = false;
 
     private final SocketAddress targetAddress;
     private final String clientIp;
     private final PacketCodecHelper codecHelper;
+    /**
+     * The event loop to register the channel on, if not the shared default group.
+     */
+    private final @Nullable EventLoop eventLoop;
 
     public LocalSession(String host, int port, SocketAddress targetAddress, String clientIp, PacketProtocol protocol, MinecraftCodecHelper codecHelper) {
+        this(host, port, targetAddress, clientIp, protocol, codecHelper, null);
+    }
+
+    public LocalSession(String host, int port, SocketAddress targetAddress, String clientIp, PacketProtocol protocol, MinecraftCodecHelper codecHelper, @Nullable EventLoop eventLoop) {
         super(host, port, protocol);
         this.targetAddress = targetAddress;
         this.clientIp = clientIp;
         this.codecHelper = codecHelper;
+        this.eventLoop = eventLoop;
     }
 
     @Override
@@ -67,7 +90,7 @@ public final class LocalSession extends TcpSession {
             throw new IllegalStateException("Connection has already been disconnected.");
         }
 
-        if (DEFAULT_EVENT_LOOP_GROUP == null) {
+        if (DEFAULT_EVENT_LOOP_GROUP == null && this.eventLoop == null) {
             DEFAULT_EVENT_LOOP_GROUP = new DefaultEventLoopGroup();
         }
 
@@ -78,20 +101,9 @@ public final class LocalSession extends TcpSession {
                 @Override
                 public void initChannel(@NonNull LocalChannelWithRemoteAddress channel) {
                     channel.spoofedRemoteAddress(new InetSocketAddress(clientIp, 0));
-                    PacketProtocol protocol = getPacketProtocol();
-                    protocol.newClientSession(LocalSession.this);
-
-                    refreshReadTimeoutHandler(channel);
-                    refreshWriteTimeoutHandler(channel);
-
-                    ChannelPipeline pipeline = channel.pipeline();
-                    pipeline.addLast("sizer", new TcpPacketSizer(LocalSession.this, protocol.getPacketHeader().getLengthSize()));
-                    pipeline.addLast("codec", new TcpPacketCodec(LocalSession.this, true));
-                    pipeline.addLast("manager", LocalSession.this);
-
-                    addHAProxySupport(pipeline);
+                    initializePipeline(channel);
                 }
-            }).group(DEFAULT_EVENT_LOOP_GROUP).option(ChannelOption.CONNECT_TIMEOUT_MILLIS, getConnectTimeout() * 1000);
+            }).group(this.eventLoop != null ? this.eventLoop : DEFAULT_EVENT_LOOP_GROUP).option(ChannelOption.CONNECT_TIMEOUT_MILLIS, getConnectTimeout() * 1000);
 
             if (PREFERRED_DIRECT_BYTE_BUF_ALLOCATOR != null) {
                 bootstrap.option(ChannelOption.ALLOCATOR, PREFERRED_DIRECT_BYTE_BUF_ALLOCATOR);
@@ -109,6 +121,33 @@ public final class LocalSession extends TcpSession {
         }
     }
 
+    void initializePipeline(Channel channel) {
+        PacketProtocol protocol = getPacketProtocol();
+        protocol.newClientSession(this);
+
+        refreshReadTimeoutHandler(channel);
+        refreshWriteTimeoutHandler(channel);
+
+        ChannelPipeline pipeline = channel.pipeline();
+        if (UNFRAMED) {
+            // The local channel's one-buffer-per-write delivery is what keeps packets apart.
+            // Encryption is still added in front of the sizer.
+            pipeline.addLast("sizer", FramingPlaceholder.INSTANCE);
+        } else {
+            pipeline.addLast("sizer", new TcpPacketSizer(this, protocol.getPacketHeader().getLengthSize()));
+        }
+        pipeline.addLast("codec", new TcpPacketCodec(this, true));
+        pipeline.addLast("manager", this);
+
+        if (MEASURE_BRIDGE) {
+            LocalBridgeStatsHandler packetSide = new LocalBridgeStatsHandler(BRIDGE_STATS, null);
+            pipeline.addBefore("manager", LocalBridgeStatsHandler.PACKET_SIDE_NAME, packetSide);
+            pipeline.addBefore("codec", LocalBridgeStatsHandler.BYTE_SIDE_NAME, new LocalBridgeStatsHandler(BRIDGE_STATS, packetSide));
+        }
+
+        addHAProxySupport(pipeline);
+    }
+
     @Override
     public MinecraftCodecHelper getCodecHelper() {
         return (MinecraftCodecHelper) this.codecHelper;
@@ -142,6 +181,54 @@ public final class LocalSession extends TcpSession {
         }
     }
 
+    public static BridgeStats.Snapshot getBridgeStats() {
+        return BRIDGE_STATS.snapshot();
+    }
+
+    /**
+     * Packet codec costs across all local sessions, recorded when {@code Geyser.MeasureLocalBridge} is set.
+     */
+    public static final class BridgeStats {
+        private final LongAdder encodedPackets = new LongAdder();
+        private final LongAdder encodedBytes = new LongAdder();
+        private final LongAdder encodeNanos = new LongAdder();
+        private final LongAdder decodedPackets = new LongAdder();
+        private final LongAdder decodedBytes = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+
+        public void recordEncode(int bytes, long nanos) {
+            encodedPackets.increment();
+            encodedBytes.add(bytes);
+            encodeNanos.add(nanos);
+        }
+
+        public void recordDecode(int bytes, long nanos) {
+            decodedPackets.increment();
+            decodedBytes.add(bytes);
+            decodeNanos.add(nanos);
+        }
+
+        Snapshot snapshot() {
+            long encoded = encodedPackets.sum();
+            long decoded = decodedPackets.sum();
+            return new Snapshot(MEASURE_BRIDGE, UNFRAMED,
+                    encoded, encodedBytes.sum(), encoded == 0 ? 0 : (double) encodeNanos.sum() / encoded / TimeUnit.MICROSECONDS.toNanos(1),
+                    decoded, decodedBytes.sum(), decoded == 0 ? 0 : (double) decodeNanos.sum() / decoded / TimeUnit.MICROSECONDS.toNanos(1));
+        }
+
+        public record Snapshot(boolean enabled, boolean unframed,
+                               long encodedPackets, long encodedBytes, double meanEncodeMicros,
+                               long decodedPackets, long decodedBytes, double meanDecodeMicros) {
+        }
+    }
+
+    /**
+     * Called by the {@link GeyserInjector} if the server's framing handlers are replaced.
+     */
+    static void setUnframed(boolean unframed) {
+        UNFRAMED = unframed;
+    }
+
     /**
      * Should only be called when direct ByteBufs should be preferred. At this moment, this should only be called on BungeeCord.
      */
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network.netty.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import org.geysermc.geyser.network.CompressionPolicy;
+
+/**
+ * Measures one side of a Bedrock channel's compression codec. One instance sits between the batch encoder and the
+ * codec and sees each batch before compression; its peer sits between the codec and the wire and sees the result.
+ * The codec runs synchronously on the channel's event loop, so the time between the two is the time spent compressing.
+ */
+public class CompressionStatsHandler extends ChannelOutboundHandlerAdapter {
+    public static final String UNCOMPRESSED_NAME = "compression-stats-uncompressed";
+    public static final String COMPRESSED_NAME = "compression-stats-compressed";
+
+    private final CompressionPolicy.Stats stats;
+    /**
+     * The handler on the uncompressed side of the codec, or null if this is that handler.
+     */
+    private final CompressionStatsHandler uncompressedSide;
+
+    private int pendingBytes = -1;
+    private long pendingStart;
+
+    public CompressionStatsHandler(CompressionPolicy.Stats stats, CompressionStatsHandler uncompressedSide) {
+        this.stats = stats;
+        this.uncompressedSide = uncompressedSide;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        int size = readableBytes(msg);
+        if (uncompressedSide == null) {
+            this.pendingBytes = size;
+            this.pendingStart = System.nanoTime();
+        } else if (size >= 0 && uncompressedSide.pendingBytes >= 0) {
+            stats.record(uncompressedSide.pendingBytes, size, System.nanoTime() - uncompressedSide.pendingStart);
+            uncompressedSide.pendingBytes = -1;
+        }
+        ctx.write(msg, promise);
+    }
+
+    private static int readableBytes(Object msg) {
+        if (msg instanceof ByteBuf buf) {
+            return buf.readableBytes();
+        }
+        if (msg instanceof ByteBufHolder holder) {
+            return holder.content().readableBytes();
+        }
+        return -1;
+    }
+}
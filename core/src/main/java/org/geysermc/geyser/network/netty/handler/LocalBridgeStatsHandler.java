@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network.netty.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import org.geysermc.geyser.network.netty.LocalSession;
+
+/**
+ * Measures one side of a local session's packet codec. One instance sits between the codec and the session and sees
+ * packets; its peer sits between the codec and the local channel and sees bytes. The codec runs synchronously on the
+ * channel's event loop, so the time between the two is what it costs to bridge a packet to or from the server.
+ */
+public class LocalBridgeStatsHandler extends ChannelDuplexHandler {
+    public static final String PACKET_SIDE_NAME = "bridge-stats-packets";
+    public static final String BYTE_SIDE_NAME = "bridge-stats-bytes";
+
+    private final LocalSession.BridgeStats stats;
+    /**
+     * The handler on the packet side of the codec, or null if this is that handler.
+     */
+    private final LocalBridgeStatsHandler packetSide;
+
+    private long encodeStart = -1;
+    private long decodeStart = -1;
+    private int decodeBytes;
+
+    public LocalBridgeStatsHandler(LocalSession.BridgeStats stats, LocalBridgeStatsHandler packetSide) {
+        this.stats = stats;
+        this.packetSide = packetSide;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (packetSide != null) {
+            if (msg instanceof ByteBuf buf) {
+                packetSide.decodeBytes = buf.readableBytes();
+                packetSide.decodeStart = System.nanoTime();
+            }
+        } else if (decodeStart >= 0) {
+            // One buffer may decode into several packets; only the first carries the timing
+            stats.recordDecode(decodeBytes, System.nanoTime() - decodeStart);
+            decodeStart = -1;
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (packetSide == null) {
+            if (!(msg instanceof ByteBuf)) {
+                encodeStart = System.nanoTime();
+            }
+        } else if (msg instanceof ByteBuf buf && packetSide.encodeStart >= 0) {
+            stats.recordEncode(buf.readableBytes(), System.nanoTime() - packetSide.encodeStart);
+            packetSide.encodeStart = -1;
+        }
+        ctx.write(msg, promise);
+    }
+}
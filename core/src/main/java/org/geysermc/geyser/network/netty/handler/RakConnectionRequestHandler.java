@@ -86,6 +86,9 @@ public class RakConnectionRequestHandler extends ChannelInboundHandlerAdapter {
 
         if (!this.server.onConnectionRequest(packet.sender())) {
             this.sendConnectionBanned(ctx, packet.sender(), magicBuf, guid);
+        } else if (!this.server.getAdmissionController().tryAdmitConnection(packet.sender())) {
+            // Too many new connections; the client will retry
+            packet.release();
         } else {
             ctx.fireChannelRead(msg);
         }
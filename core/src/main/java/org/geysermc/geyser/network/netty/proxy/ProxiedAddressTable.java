@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network.netty.proxy;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the real address a PROXY protocol header gave for each sender. Lookups happen for every inbound datagram,
+ * so they never lock: entries carry their last access time, expired entries are ignored when read, and
+ * {@link #sweep()} removes them in bulk.
+ */
+public final class ProxiedAddressTable {
+    /**
+     * Accesses closer together than this don't update an entry's timestamp, so a busy sender's entry isn't written
+     * on every packet.
+     */
+    private static final long ACCESS_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<InetSocketAddress, Entry> entries = new ConcurrentHashMap<>();
+    private final long expiryNanos;
+
+    public ProxiedAddressTable(long expiry, TimeUnit unit) {
+        this.expiryNanos = unit.toNanos(expiry);
+    }
+
+    public InetSocketAddress get(InetSocketAddress sender) {
+        Entry entry = entries.get(sender);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        long lastAccess = entry.lastAccess;
+        if (now - lastAccess > expiryNanos) {
+            entries.remove(sender, entry);
+            return null;
+        }
+        if (now - lastAccess > ACCESS_GRANULARITY_NANOS) {
+            entry.lastAccess = now;
+        }
+        return entry.address;
+    }
+
+    public InetSocketAddress getOrDefault(InetSocketAddress sender, InetSocketAddress defaultValue) {
+        InetSocketAddress address = get(sender);
+        return address == null ? defaultValue : address;
+    }
+
+    public void put(InetSocketAddress sender, InetSocketAddress address) {
+        entries.put(sender, new Entry(address, System.nanoTime()));
+    }
+
+    /**
+     * Removes every expired entry. Meant to be scheduled periodically.
+     */
+    public void sweep() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.lastAccess > expiryNanos);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final InetSocketAddress address;
+        private volatile long lastAccess;
+
+        private Entry(InetSocketAddress address, long lastAccess) {
+            this.address = address;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -30,15 +30,22 @@ import com.github.steveice10.mc.protocol.packet.ingame.clientbound.ClientboundTa
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.level.ClientboundChunkBatchStartPacket;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.level.ClientboundLightUpdatePacket;
 import io.netty.channel.EventLoop;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.registry.loader.RegistryLoaders;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PacketTranslatorRegistry<T> extends AbstractMappedRegistry<Class<? extends T>, PacketTranslator<? extends T>, IdentityHashMap<Class<? extends T>, PacketTranslator<? extends T>>> {
     private static final Set<Class<?>> IGNORED_PACKETS = Collections.newSetFromMap(new IdentityHashMap<>());
@@ -50,50 +57,148 @@ public class PacketTranslatorRegistry<T> extends AbstractMappedRegistry<Class<?
         IGNORED_PACKETS.add(ClientboundTabListPacket.class); // Cant be implemented in Bedrock
     }
 
+    /**
+     * If translator invocations, timings and exceptions should be recorded. Can be toggled with the translators command.
+     */
+    private static volatile boolean recordStats = Boolean.getBoolean("Geyser.PacketTranslatorStats");
+
+    private final Map<Class<?>, TranslatorSlot<?>> registeredSlots = new ConcurrentHashMap<>();
+    /**
+     * Each packet class is resolved to its slot once - Java packet IDs depend on the protocol state, and are not passed
+     * along with the packet, so the slot is cached on the class itself instead.
+     */
+    private final ClassValue<TranslatorSlot<?>> slots = new ClassValue<>() {
+        @Override
+        protected TranslatorSlot<?> computeValue(Class<?> type) {
+            TranslatorSlot<?> slot = registeredSlots.get(type);
+            return slot != null ? slot : new TranslatorSlot<>(type, null);
+        }
+    };
+
     protected PacketTranslatorRegistry() {
         super(null, RegistryLoaders.empty(IdentityHashMap::new));
     }
 
+    @Override
+    public PacketTranslator<? extends T> register(Class<? extends T> key, PacketTranslator<? extends T> value) {
+        PacketTranslator<? extends T> previous = super.register(key, value);
+        this.registeredSlots.put(key, new TranslatorSlot<>(key, value));
+        this.slots.remove(key);
+        return previous;
+    }
+
     @SuppressWarnings("unchecked")
     public <P extends T> boolean translate(Class<? extends P> clazz, P packet, GeyserSession session) {
         if (session.getUpstream().isClosed() || session.isClosed()) {
             return false;
         }
 
-        PacketTranslator<P> translator = (PacketTranslator<P>) this.mappings.get(clazz);
-        if (translator != null) {
-            EventLoop eventLoop = session.getEventLoop();
-            if (!translator.shouldExecuteInEventLoop() || eventLoop.inEventLoop()) {
-                translate0(session, translator, packet);
-            } else {
-                eventLoop.execute(() -> translate0(session, translator, packet));
+        TranslatorSlot<P> slot = (TranslatorSlot<P>) this.slots.get(clazz);
+        if (slot.translator == null) {
+            if (!slot.ignored && GeyserImpl.getInstance().getConfig().isDebugMode()) {
+                GeyserImpl.getInstance().getLogger().debug("Could not find packet for " + clazz.getSimpleName());
             }
-            return true;
-        } else {
-            if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
-                if (!IGNORED_PACKETS.contains(clazz)) {
-                    GeyserImpl.getInstance().getLogger().debug("Could not find packet for " + (packet.toString().length() > 25 ? packet.getClass().getSimpleName() : packet));
-                }
-            }
-
             return false;
         }
+
+        EventLoop eventLoop = session.getEventLoop();
+        if (!slot.executeInEventLoop || eventLoop.inEventLoop()) {
+            translate0(session, slot, packet);
+        } else {
+            eventLoop.execute(() -> translate0(session, slot, packet));
+        }
+        return true;
     }
 
-    private <P extends T> void translate0(GeyserSession session, PacketTranslator<P> translator, P packet) {
+    private <P extends T> void translate0(GeyserSession session, TranslatorSlot<P> slot, P packet) {
         if (session.isClosed()) {
             return;
         }
 
+        if (!recordStats) {
+            try {
+                slot.translator.translate(session, packet);
+            } catch (Throwable ex) {
+                logTranslationError(packet, ex);
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
         try {
-            translator.translate(session, packet);
+            slot.translator.translate(session, packet);
         } catch (Throwable ex) {
-            GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.network.translator.packet.failed", packet.getClass().getSimpleName()), ex);
-            ex.printStackTrace();
+            slot.exceptions.increment();
+            logTranslationError(packet, ex);
+        } finally {
+            slot.invocations.increment();
+            slot.nanos.add(System.nanoTime() - start);
         }
     }
 
+    private static void logTranslationError(Object packet, Throwable ex) {
+        GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.network.translator.packet.failed", packet.getClass().getSimpleName()), ex);
+        ex.printStackTrace();
+    }
+
+    /**
+     * @return the recorded stats of every translator that has been invoked, most expensive first
+     */
+    public List<TranslatorStats> getStats() {
+        List<TranslatorStats> stats = new ArrayList<>();
+        for (TranslatorSlot<?> slot : this.registeredSlots.values()) {
+            long invocations = slot.invocations.sum();
+            if (invocations != 0) {
+                stats.add(new TranslatorStats(slot.translator.getClass().getSimpleName(), slot.packet.getSimpleName(),
+                        invocations, slot.nanos.sum(), slot.exceptions.sum()));
+            }
+        }
+        stats.sort(Comparator.comparingLong(TranslatorStats::nanos).reversed());
+        return stats;
+    }
+
+    public void resetStats() {
+        for (TranslatorSlot<?> slot : this.registeredSlots.values()) {
+            slot.invocations.reset();
+            slot.nanos.reset();
+            slot.exceptions.reset();
+        }
+    }
+
+    public static boolean isRecordingStats() {
+        return recordStats;
+    }
+
+    public static void setRecordingStats(boolean recordStats) {
+        PacketTranslatorRegistry.recordStats = recordStats;
+    }
+
     public static <T> PacketTranslatorRegistry<T> create() {
         return new PacketTranslatorRegistry<>();
     }
+
+    /**
+     * Everything needed to dispatch one packet class, resolved once.
+     */
+    private static final class TranslatorSlot<P> {
+        private final Class<?> packet;
+        private final @Nullable PacketTranslator<P> translator;
+        private final boolean executeInEventLoop;
+        private final boolean ignored;
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder exceptions = new LongAdder();
+
+        @SuppressWarnings("unchecked")
+        private TranslatorSlot(Class<?> packet, @Nullable PacketTranslator<?> translator) {
+            this.packet = packet;
+            this.translator = (PacketTranslator<P>) translator;
+            this.executeInEventLoop = translator == null || translator.shouldExecuteInEventLoop();
+            this.ignored = IGNORED_PACKETS.contains(packet);
+        }
+    }
+
+    public record TranslatorStats(String translator, String packet, long invocations, long nanos, long exceptions) {
+    }
 }
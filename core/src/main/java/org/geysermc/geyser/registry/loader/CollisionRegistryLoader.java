@@ -27,8 +27,6 @@ package org.geysermc.geyser.registry.loader;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import it.unimi.dsi.fastutil.Pair;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import lombok.AllArgsConstructor;
@@ -51,12 +49,10 @@ import java.util.regex.Pattern;
 /**
  * Loads collision data from the given resource path.
  */
-public class CollisionRegistryLoader extends MultiResourceRegistryLoader<String, Int2ObjectMap<BlockCollision>> {
+public class CollisionRegistryLoader extends MultiResourceRegistryLoader<String, BlockCollision[]> {
 
     @Override
-    public Int2ObjectMap<BlockCollision> load(Pair<String, String> input) {
-        Int2ObjectMap<BlockCollision> collisions = new Int2ObjectOpenHashMap<>();
-
+    public BlockCollision[] load(Pair<String, String> input) {
         Map<Class<?>, CollisionInfo> annotationMap = new IdentityHashMap<>();
         for (Class<?> clazz : FileUtils.getGeneratedClassesForAnnotation(CollisionRemapper.class.getName())) {
             GeyserImpl.getInstance().getLogger().debug("Found annotated collision translator: " + clazz.getCanonicalName());
@@ -75,6 +71,8 @@ public class CollisionRegistryLoader extends MultiResourceRegistryLoader<String,
         }
 
         BlockMapping[] blockMappings = BlockRegistries.JAVA_BLOCKS.get();
+        // Indexed directly by Java block state ID
+        BlockCollision[] collisions = new BlockCollision[blockMappings.length];
 
         // Map of unique collisions to its instance
         Map<BlockCollision, BlockCollision> collisionInstances = new Object2ObjectOpenHashMap<>();
@@ -97,7 +95,7 @@ public class CollisionRegistryLoader extends MultiResourceRegistryLoader<String,
                 }
             }
 
-            collisions.put(i, newCollision);
+            collisions[i] = newCollision;
         }
         return collisions;
     }
@@ -28,13 +28,24 @@ package org.geysermc.geyser.session;
 import com.github.steveice10.mc.protocol.codec.MinecraftCodecHelper;
 import com.github.steveice10.packetlib.packet.Packet;
 import com.github.steveice10.packetlib.tcp.TcpSession;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.geysermc.geyser.GeyserImpl;
 
 @Getter
 @RequiredArgsConstructor
 public class DownstreamSession {
+    /**
+     * Runs the connection to the Java server on the event loop of its Bedrock session, so Java packets are translated
+     * as they are read and packets to the Java server are written without handing them to another thread.
+     * <p>
+     * Experimental: this moves a channel MCProtocolLib set up for its own event loop group, and is off by default.
+     */
+    public static final boolean USE_SESSION_EVENT_LOOP = Boolean.getBoolean("Geyser.DownstreamOnSessionEventLoop");
+
     private final TcpSession session;
 
     public void sendPacket(@NonNull Packet packet) {
@@ -49,6 +60,75 @@ public class DownstreamSession {
         this.session.disconnect(reason, throwable);
     }
 
+    /**
+     * Moves an established channel over to the given event loop. MCProtocolLib's client sessions always connect using
+     * their own event loop group, so this can only be done once connected. Runs on the channel's current event loop;
+     * packets already read are handed off as before, so ordering is kept.
+     * <p>
+     * Reading is paused while the channel has no event loop. MCProtocolLib's read and write timeout handlers schedule
+     * their checks on the event loop they were added on, so they are removed for the move and added back once the
+     * channel is registered again. If the channel can't be registered on the new event loop, it goes back to the old
+     * one, and if that fails too, the session is closed.
+     */
+    public void moveToEventLoop(EventLoop eventLoop) {
+        Channel channel = this.session.getChannel();
+        EventLoop currentEventLoop = channel.eventLoop();
+        if (currentEventLoop == eventLoop) {
+            return;
+        }
+        if (currentEventLoop.getClass() != eventLoop.getClass()) {
+            // A channel can only be registered on an event loop of its own transport
+            GeyserImpl.getInstance().getLogger().debug("Not moving downstream channel from " + currentEventLoop.getClass().getSimpleName()
+                    + " to " + eventLoop.getClass().getSimpleName());
+            return;
+        }
+        if (!currentEventLoop.inEventLoop()) {
+            currentEventLoop.execute(() -> moveToEventLoop(eventLoop));
+            return;
+        }
+
+        int readTimeout = this.session.getReadTimeout();
+        int writeTimeout = this.session.getWriteTimeout();
+        this.session.setReadTimeout(0);
+        this.session.setWriteTimeout(0);
+        boolean autoRead = channel.config().isAutoRead();
+        channel.config().setAutoRead(false);
+
+        channel.deregister().addListener(deregistered -> {
+            if (!deregistered.isSuccess()) {
+                // Still registered where it was
+                GeyserImpl.getInstance().getLogger().warning("Could not move the connection to the Java server to another thread: " + deregistered.cause());
+                resume(channel, readTimeout, writeTimeout, autoRead);
+                return;
+            }
+            eventLoop.register(channel).addListener(registered -> {
+                if (registered.isSuccess()) {
+                    resume(channel, readTimeout, writeTimeout, autoRead);
+                    return;
+                }
+                GeyserImpl.getInstance().getLogger().warning("Could not move the connection to the Java server to another thread: " + registered.cause());
+                currentEventLoop.register(channel).addListener(reregistered -> {
+                    if (reregistered.isSuccess()) {
+                        resume(channel, readTimeout, writeTimeout, autoRead);
+                        return;
+                    }
+                    // Without an event loop, the channel can't go through its pipeline to close
+                    channel.unsafe().closeForcibly();
+                    this.session.disconnect("Could not register the connection to the Java server", reregistered.cause());
+                });
+            });
+        });
+    }
+
+    private void resume(Channel channel, int readTimeout, int writeTimeout, boolean autoRead) {
+        if (!channel.isOpen()) {
+            return;
+        }
+        this.session.setReadTimeout(readTimeout);
+        this.session.setWriteTimeout(writeTimeout);
+        channel.config().setAutoRead(autoRead);
+    }
+
     public boolean isClosed() {
         return !this.session.isConnected();
     }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session;
+
+import org.cloudburstmc.protocol.bedrock.data.definitions.ItemDefinition;
+import org.cloudburstmc.protocol.bedrock.packet.AvailableEntityIdentifiersPacket;
+import org.cloudburstmc.protocol.bedrock.packet.BiomeDefinitionListPacket;
+import org.cloudburstmc.protocol.bedrock.packet.CraftingDataPacket;
+import org.cloudburstmc.protocol.bedrock.packet.CreativeContentPacket;
+import org.cloudburstmc.protocol.bedrock.packet.ItemComponentPacket;
+import org.geysermc.geyser.network.EncodedPacketCache;
+import org.geysermc.geyser.registry.Registries;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The packets sent while joining that are the same for every player on a protocol version. Each is serialized
+ * once per version, the first time a player on that version joins, instead of once per join.
+ */
+public final class JoinPayloadCache {
+    private static final EncodedPacketCache ITEM_COMPONENTS = new EncodedPacketCache(session -> {
+        ItemComponentPacket componentPacket = new ItemComponentPacket();
+        componentPacket.getItems().addAll(session.getItemMappings().getComponentItemData());
+        return componentPacket;
+    });
+    private static final EncodedPacketCache BIOME_DEFINITIONS = new EncodedPacketCache(session -> {
+        BiomeDefinitionListPacket biomeDefinitionListPacket = new BiomeDefinitionListPacket();
+        biomeDefinitionListPacket.setDefinitions(Registries.BIOMES_NBT.get());
+        return biomeDefinitionListPacket;
+    });
+    private static final EncodedPacketCache ENTITY_IDENTIFIERS = new EncodedPacketCache(session -> {
+        AvailableEntityIdentifiersPacket entityPacket = new AvailableEntityIdentifiersPacket();
+        entityPacket.setIdentifiers(Registries.BEDROCK_ENTITY_IDENTIFIERS.get());
+        return entityPacket;
+    });
+    private static final EncodedPacketCache CREATIVE_CONTENT = new EncodedPacketCache(session -> {
+        CreativeContentPacket creativePacket = new CreativeContentPacket();
+        creativePacket.setContents(session.getItemMappings().getCreativeItems());
+        return creativePacket;
+    });
+    private static final EncodedPacketCache POTION_MIXES = new EncodedPacketCache(session -> {
+        // Potion mixes are registered by default, as they are needed to be able to put ingredients into the brewing stand.
+        CraftingDataPacket craftingDataPacket = new CraftingDataPacket();
+        craftingDataPacket.setCleanRecipes(true);
+        craftingDataPacket.getPotionMixData().addAll(Registries.POTION_MIXES.forVersion(session.getUpstream().getProtocolVersion()));
+        return craftingDataPacket;
+    });
+
+    /**
+     * The item palette for StartGamePacket, by protocol version. The packet itself carries per-player fields, so only
+     * its largest part is shared.
+     */
+    private static final Map<Integer, List<ItemDefinition>> ITEM_DEFINITIONS = new ConcurrentHashMap<>();
+
+    private JoinPayloadCache() {
+    }
+
+    public static List<ItemDefinition> getItemDefinitions(GeyserSession session) {
+        return ITEM_DEFINITIONS.computeIfAbsent(session.getUpstream().getProtocolVersion(),
+                protocol -> List.copyOf(session.getItemMappings().getItemDefinitions().values()));
+    }
+
+    public static void sendItemComponents(GeyserSession session) {
+        ITEM_COMPONENTS.sendTo(session);
+    }
+
+    /**
+     * Sends the biome definitions, entity identifiers, creative inventory and potion mixes.
+     */
+    public static void sendStaticRegistries(GeyserSession session) {
+        BIOME_DEFINITIONS.sendTo(session);
+        ENTITY_IDENTIFIERS.sendTo(session);
+        CREATIVE_CONTENT.sendTo(session);
+        POTION_MIXES.sendTo(session);
+    }
+}
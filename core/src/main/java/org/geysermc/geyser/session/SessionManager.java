@@ -30,6 +30,7 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.network.netty.GeyserServer;
 import org.geysermc.geyser.text.GeyserLocale;
 
 import java.util.*;
@@ -60,6 +61,7 @@ public final class SessionManager {
     public void addSession(UUID uuid, GeyserSession session) {
         pendingSessions.remove(session);
         sessions.put(uuid, session);
+        onLoginFinished(session);
     }
 
     public void removeSession(GeyserSession session) {
@@ -68,6 +70,14 @@ public final class SessionManager {
             // Connection was likely pending
             pendingSessions.remove(session);
         }
+        onLoginFinished(session);
+    }
+
+    private void onLoginFinished(GeyserSession session) {
+        GeyserServer server = session.getGeyser().getGeyserServer();
+        if (server != null) {
+            server.getAdmissionController().onLoginFinished(session);
+        }
     }
 
     public @Nullable GeyserSession sessionByXuid(@NonNull String xuid) {
@@ -25,6 +25,7 @@
 
 package org.geysermc.geyser.session;
 
+import io.netty.channel.EventLoop;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -36,28 +37,124 @@ import org.geysermc.geyser.network.GeyserBedrockPeer;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 @RequiredArgsConstructor
 public class UpstreamSession {
+    /**
+     * When enabled, packets sent from the session's event loop are held until the work that produced them - one
+     * downstream read burst or one tick - has finished, then handed to the Bedrock connection together so they
+     * are compressed as a single batch. Packets sent from other threads are queued behind them on the event loop.
+     */
+    private static final boolean BATCH_PACKETS = Boolean.getBoolean("Geyser.BatchUpstreamPackets");
+    /**
+     * Held packets are handed over early once there are this many.
+     */
+    private static final int MAX_BATCH_PACKETS = Integer.getInteger("Geyser.MaxUpstreamBatchPackets", 256);
+
+    private static final long STATS_START = System.nanoTime();
+    private static final LongAdder BATCHES = new LongAdder();
+    private static final LongAdder BATCHED_PACKETS = new LongAdder();
+    private static final LongAdder CAPPED_BATCHES = new LongAdder();
+    private static final LongAccumulator LARGEST_BATCH = new LongAccumulator(Math::max, 0);
+
     @Getter private final BedrockServerSession session;
+    private final EventLoop eventLoop;
     @Getter @Setter
     private boolean initialized = false;
     private Queue<BedrockPacket> postStartGamePackets = new ArrayDeque<>();
 
+    private final List<BedrockPacket> pendingPackets = BATCH_PACKETS ? new ArrayList<>() : null;
+    private boolean flushScheduled = false;
+
     public void sendPacket(@NonNull BedrockPacket packet) {
-        if (!isClosed()) {
+        if (isClosed()) {
+            return;
+        }
+
+        if (pendingPackets == null) {
             session.sendPacket(packet);
+            return;
+        }
+        if (!eventLoop.inEventLoop()) {
+            // Such as skin callbacks; they must not overtake packets still held from the event loop
+            eventLoop.execute(() -> sendPacket(packet));
+            return;
+        }
+
+        pendingPackets.add(packet);
+        if (pendingPackets.size() >= MAX_BATCH_PACKETS) {
+            CAPPED_BATCHES.increment();
+            flushPendingPackets();
+        } else if (!flushScheduled) {
+            // Runs after every task already queued, such as the rest of a downstream read burst
+            flushScheduled = true;
+            eventLoop.execute(this::flushPendingPackets);
         }
     }
 
     public void sendPacketImmediately(@NonNull BedrockPacket packet) {
         if (!isClosed()) {
+            if (pendingPackets != null) {
+                if (!eventLoop.inEventLoop()) {
+                    eventLoop.execute(() -> sendPacketImmediately(packet));
+                    return;
+                }
+                // Keep the order packets were sent in
+                flushPendingPackets();
+            }
             session.sendPacketImmediately(packet);
         }
     }
 
+    private void flushPendingPackets() {
+        flushScheduled = false;
+        int size = pendingPackets.size();
+        if (size == 0) {
+            return;
+        }
+
+        BedrockPacket[] packets = pendingPackets.toArray(new BedrockPacket[0]);
+        pendingPackets.clear();
+
+        BATCHES.increment();
+        BATCHED_PACKETS.add(size);
+        LARGEST_BATCH.accumulate(size);
+
+        if (isClosed()) {
+            return;
+        }
+        // Queue everything in one task on the connection's event loop, so the connection can't flush partway through
+        EventLoop channelLoop = session.getPeer().getChannel().eventLoop();
+        if (channelLoop.inEventLoop()) {
+            queuePackets(packets);
+        } else {
+            channelLoop.execute(() -> queuePackets(packets));
+        }
+    }
+
+    private void queuePackets(BedrockPacket[] packets) {
+        for (BedrockPacket packet : packets) {
+            session.sendPacket(packet);
+        }
+    }
+
     public void disconnect(String reason) {
+        if (pendingPackets != null && eventLoop.inEventLoop()) {
+            // Packets sent just before disconnecting, such as the reason in chat, still have to arrive first
+            flushPendingPackets();
+            EventLoop channelLoop = session.getPeer().getChannel().eventLoop();
+            if (!channelLoop.inEventLoop()) {
+                // The flushed packets are queued on the connection's event loop
+                channelLoop.execute(() -> this.session.disconnect(reason));
+                return;
+            }
+        }
         this.session.disconnect(reason);
     }
 
@@ -73,6 +170,10 @@ public class UpstreamSession {
             return;
         }
 
+        if (pendingPackets != null && eventLoop.inEventLoop()) {
+            flushPendingPackets();
+        }
+
         BedrockPacket packet;
         while ((packet = postStartGamePackets.poll()) != null) {
             session.sendPacket(packet);
@@ -98,6 +199,21 @@ public class UpstreamSession {
         return this.session.getCodec().getProtocolVersion();
     }
 
+    public static BatchStats getBatchStats() {
+        long batches = BATCHES.sum();
+        long packets = BATCHED_PACKETS.sum();
+        double seconds = (System.nanoTime() - STATS_START) / (double) TimeUnit.SECONDS.toNanos(1);
+        return new BatchStats(BATCH_PACKETS, batches, packets, CAPPED_BATCHES.sum(), LARGEST_BATCH.get(),
+                batches == 0 ? 0 : (double) packets / batches, seconds <= 0 ? 0 : batches / seconds);
+    }
+
+    /**
+     * @param cappedBatches batches handed over early for reaching the size cap
+     */
+    public record BatchStats(boolean enabled, long batches, long packets, long cappedBatches, long largestBatch,
+                             double meanBatchSize, double batchesPerSecond) {
+    }
+
     /**
      * Gets the codec helper for this session.
      *
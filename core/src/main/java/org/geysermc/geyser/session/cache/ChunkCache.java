@@ -26,6 +26,7 @@
 package org.geysermc.geyser.session.cache;
 
 import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import com.github.steveice10.mc.protocol.data.game.level.block.BlockChangeEntry;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.Getter;
@@ -37,6 +38,10 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.util.MathUtils;
 
 public class ChunkCache {
+    /**
+     * Whether this cache holds chunk data; if not, blocks have to be looked up through the world manager.
+     */
+    @Getter
     private final boolean cache;
     private final Long2ObjectMap<GeyserChunk> chunks;
 
@@ -90,23 +95,69 @@ public class ChunkCache {
             return;
         }
 
-        DataPalette palette = chunk.sections()[(y - minY) >> 4];
+        DataPalette palette = getOrCreateSection(chunk, (y - minY) >> 4, block != BlockStateValues.JAVA_AIR_ID);
         if (palette == null) {
-            if (block != BlockStateValues.JAVA_AIR_ID) {
-                // A previously empty chunk, which is no longer empty as a block has been added to it
-                palette = DataPalette.createForChunk();
-                // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
-                palette.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
-                chunk.sections()[(y - minY) >> 4] = palette;
-            } else {
-                // Nothing to update
-                return;
-            }
+            // Nothing to update
+            return;
         }
 
         palette.set(x & 0xF, y & 0xF, z & 0xF, block);
     }
 
+    /**
+     * Applies every block change of one Java section, looking the section up only once.
+     */
+    public void updateSection(int chunkX, int chunkY, int chunkZ, BlockChangeEntry[] entries) {
+        if (!cache) {
+            return;
+        }
+
+        GeyserChunk chunk = this.getChunk(chunkX, chunkZ);
+        if (chunk == null) {
+            return;
+        }
+
+        int sectionIndex = chunkY - (minY >> 4);
+        if (sectionIndex < 0 || sectionIndex > chunk.sections().length - 1) {
+            // Y likely goes above or below the height limit of this world
+            return;
+        }
+
+        boolean hasBlocks = false;
+        for (BlockChangeEntry entry : entries) {
+            if (entry.getBlock() != BlockStateValues.JAVA_AIR_ID) {
+                hasBlocks = true;
+                break;
+            }
+        }
+
+        DataPalette palette = getOrCreateSection(chunk, sectionIndex, hasBlocks);
+        if (palette == null) {
+            // Only air placed into an empty section
+            return;
+        }
+
+        for (BlockChangeEntry entry : entries) {
+            palette.set(entry.getPosition().getX() & 0xF, entry.getPosition().getY() & 0xF, entry.getPosition().getZ() & 0xF, entry.getBlock());
+        }
+    }
+
+    /**
+     * @param create whether an empty section should be created if there is none
+     * @return the section, or null if it is empty and should not be created
+     */
+    private DataPalette getOrCreateSection(GeyserChunk chunk, int sectionIndex, boolean create) {
+        DataPalette palette = chunk.sections()[sectionIndex];
+        if (palette == null && create) {
+            // A previously empty chunk, which is no longer empty as a block has been added to it
+            palette = DataPalette.createForChunk();
+            // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
+            palette.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
+            chunk.sections()[sectionIndex] = palette;
+        }
+        return palette;
+    }
+
     public int getBlockAt(int x, int y, int z) {
         if (!cache) {
             return BlockStateValues.JAVA_AIR_ID;
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import org.geysermc.geyser.entity.type.player.PlayerEntity;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.skin.SkinManager;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tracks players whose tab list entry was sent with a placeholder skin, when skins are deferred. Players that come
+ * into view request their skin as they spawn and are dropped from here; the rest are worked through in tab list
+ * order, a few at a time.
+ */
+public class TabListSkinCache {
+    /**
+     * How many deferred skins may be requested at once for one session.
+     */
+    private static final int MAX_PENDING_REQUESTS = Integer.getInteger("Geyser.MaxDeferredSkinRequests", 4);
+
+    private final GeyserSession session;
+    private final Set<UUID> deferredSkins = new ObjectLinkedOpenHashSet<>();
+    private int pendingRequests = 0;
+
+    public TabListSkinCache(GeyserSession session) {
+        this.session = session;
+    }
+
+    public void add(UUID uuid) {
+        deferredSkins.add(uuid);
+    }
+
+    /**
+     * Called when the player's skin no longer needs to be sent from here, as it has been requested elsewhere or the
+     * player has left the tab list.
+     */
+    public void remove(UUID uuid) {
+        deferredSkins.remove(uuid);
+    }
+
+    public void tick() {
+        if (deferredSkins.isEmpty() || !session.isSpawned()) {
+            return;
+        }
+
+        Iterator<UUID> it = deferredSkins.iterator();
+        while (pendingRequests < MAX_PENDING_REQUESTS && it.hasNext()) {
+            PlayerEntity entity = session.getEntityCache().getPlayerEntity(it.next());
+            it.remove();
+            if (entity == null) {
+                continue;
+            }
+
+            pendingRequests++;
+            SkinManager.sendDeferredSkin(session, entity, () -> session.ensureInEventLoop(() -> pendingRequests--));
+        }
+    }
+}
@@ -28,72 +28,37 @@ package org.geysermc.geyser.skin;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.Setter;
-import org.checkerframework.checker.nullness.qual.NonNull;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.entity.type.LivingEntity;
 import org.geysermc.geyser.entity.type.player.PlayerEntity;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.GeyserLocale;
 
-import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Responsible for modifying a player's skin when wearing a player head
  */
 public class FakeHeadProvider {
-    private static final LoadingCache<FakeHeadEntry, SkinProvider.SkinData> MERGED_SKINS_LOADING_CACHE = CacheBuilder.newBuilder()
+    /**
+     * The head occupies the top 64x16 pixels of a skin, which in 64 pixel wide RGBA data is one contiguous block.
+     */
+    private static final int HEAD_DATA_LENGTH = 64 * 16 * 4;
+
+    /**
+     * Merged skin textures, keyed by the hashes of the textures they were made from. Not tied to a player, as
+     * players *can* change skins in-game.
+     */
+    private static final Cache<MergedSkinKey, SkinProvider.Skin> MERGED_SKINS = CacheBuilder.newBuilder()
             .expireAfterAccess(1, TimeUnit.HOURS)
             .maximumSize(10000)
-            .build(new CacheLoader<>() {
-                @Override
-                public SkinProvider.SkinData load(@NonNull FakeHeadEntry fakeHeadEntry) throws Exception {
-                    SkinProvider.SkinData skinData = SkinProvider.getOrDefault(SkinProvider.requestSkinData(fakeHeadEntry.getEntity()), null, 5);
-
-                    if (skinData == null) {
-                        throw new Exception("Couldn't load player's original skin");
-                    }
-
-                    SkinProvider.Skin skin = skinData.skin();
-                    SkinProvider.Cape cape = skinData.cape();
-                    SkinProvider.SkinGeometry geometry = skinData.geometry().geometryName().equals("{\"geometry\" :{\"default\" :\"geometry.humanoid.customSlim\"}}")
-                            ? SkinProvider.WEARING_CUSTOM_SKULL_SLIM : SkinProvider.WEARING_CUSTOM_SKULL;
-
-                    SkinProvider.Skin headSkin = SkinProvider.getOrDefault(
-                            SkinProvider.requestSkin(fakeHeadEntry.getEntity().getUuid(), fakeHeadEntry.getFakeHeadSkinUrl(), false), SkinProvider.EMPTY_SKIN, 5);
-                    BufferedImage originalSkinImage = SkinProvider.imageDataToBufferedImage(skin.getSkinData(), 64, skin.getSkinData().length / 4 / 64);
-                    BufferedImage headSkinImage = SkinProvider.imageDataToBufferedImage(headSkin.getSkinData(), 64, headSkin.getSkinData().length / 4 / 64);
-
-                    Graphics2D graphics2D = originalSkinImage.createGraphics();
-                    graphics2D.setComposite(AlphaComposite.Clear);
-                    graphics2D.fillRect(0, 0, 64, 16);
-                    graphics2D.setComposite(AlphaComposite.SrcOver);
-                    graphics2D.drawImage(headSkinImage, 0, 0, 64, 16, 0, 0, 64, 16, null);
-                    graphics2D.dispose();
-
-                    // Make the skin key a combination of the current skin data and the new skin data
-                    // Don't tie it to a player - that player *can* change skins in-game
-                    String skinKey = "customPlayerHead_" + fakeHeadEntry.getFakeHeadSkinUrl() + "_" + skin.getTextureUrl();
-                    byte[] targetSkinData = SkinProvider.bufferedImageToImageData(originalSkinImage);
-                    SkinProvider.Skin mergedSkin = new SkinProvider.Skin(fakeHeadEntry.getEntity().getUuid(), skinKey, targetSkinData, System.currentTimeMillis(), false, false);
-
-                    // Avoiding memory leak
-                    fakeHeadEntry.setEntity(null);
-
-                    return new SkinProvider.SkinData(mergedSkin, cape, geometry);
-                }
-            });
+            .build();
 
     public static void setHead(GeyserSession session, PlayerEntity entity, Tag skullOwner) {
         if (skullOwner == null) {
@@ -133,15 +98,51 @@ public class FakeHeadProvider {
         String fakeHeadSkinUrl = gameProfileData.skinUrl();
 
         session.getPlayerWithCustomHeads().add(entity.getUuid());
-        String texturesProperty = entity.getTexturesProperty();
-        SkinProvider.getExecutorService().execute(() -> {
-            try {
-                SkinProvider.SkinData mergedSkinData = MERGED_SKINS_LOADING_CACHE.get(new FakeHeadEntry(texturesProperty, fakeHeadSkinUrl, entity));
-                SkinManager.sendSkinPacket(session, entity, mergedSkinData);
-            } catch (ExecutionException e) {
-                GeyserImpl.getInstance().getLogger().error("Couldn't merge skin of " + entity.getUsername() + " with head skin url " + fakeHeadSkinUrl, e);
-            }
-        });
+        SkinProvider.withDefault(SkinProvider.requestSkinData(entity), null, 5)
+                .thenCombine(SkinProvider.withDefault(SkinProvider.requestSkin(entity.getUuid(), fakeHeadSkinUrl), SkinProvider.EMPTY_SKIN, 5),
+                        (skinData, headSkin) -> {
+                            if (skinData == null) {
+                                throw new IllegalStateException("Couldn't load player's original skin");
+                            }
+                            return mergeHead(skinData, headSkin, fakeHeadSkinUrl, entity.getUuid());
+                        })
+                .whenComplete((mergedSkinData, throwable) -> {
+                    if (throwable != null) {
+                        GeyserImpl.getInstance().getLogger().error("Couldn't merge skin of " + entity.getUsername() + " with head skin url " + fakeHeadSkinUrl, throwable);
+                        return;
+                    }
+
+                    session.ensureInEventLoop(() -> {
+                        // The head may have been taken off while the skins were loading
+                        if (session.getPlayerWithCustomHeads().contains(entity.getUuid())) {
+                            SkinManager.sendSkinPacket(session, entity, mergedSkinData);
+                        }
+                    });
+                });
+    }
+
+    private static SkinProvider.SkinData mergeHead(SkinProvider.SkinData skinData, SkinProvider.Skin headSkin, String fakeHeadSkinUrl, UUID uuid) {
+        SkinProvider.Skin skin = skinData.skin();
+        SkinProvider.SkinGeometry geometry = skinData.geometry() != null && skinData.geometry().geometryName().equals("{\"geometry\" :{\"default\" :\"geometry.humanoid.customSlim\"}}")
+                ? SkinProvider.WEARING_CUSTOM_SKULL_SLIM : SkinProvider.WEARING_CUSTOM_SKULL;
+
+        MergedSkinKey key = new MergedSkinKey(skin.getTextureUrl(), skin.isEars(), headSkin.getTextureUrl(), headSkin.isEars());
+        SkinProvider.Skin mergedSkin = MERGED_SKINS.getIfPresent(key);
+        if (mergedSkin == null) {
+            // Replace the head of the original skin with the one from the head's skin
+            byte[] targetSkinData = skin.getSkinData().clone();
+            byte[] headSkinData = headSkin.getSkinData();
+            int copied = Math.min(HEAD_DATA_LENGTH, Math.min(headSkinData.length, targetSkinData.length));
+            System.arraycopy(headSkinData, 0, targetSkinData, 0, copied);
+            Arrays.fill(targetSkinData, copied, Math.min(HEAD_DATA_LENGTH, targetSkinData.length), (byte) 0);
+
+            // Make the skin key a combination of the current skin data and the new skin data
+            String skinKey = "customPlayerHead_" + fakeHeadSkinUrl + "_" + skin.getTextureUrl();
+            mergedSkin = new SkinProvider.Skin(uuid, skinKey, targetSkinData, System.currentTimeMillis(), false, false);
+            MERGED_SKINS.put(key, mergedSkin);
+        }
+
+        return new SkinProvider.SkinData(mergedSkin, skinData.cape(), geometry);
     }
 
     public static void restoreOriginalSkin(GeyserSession session, LivingEntity livingEntity) {
@@ -163,27 +164,10 @@ public class FakeHeadProvider {
         });
     }
 
-    @AllArgsConstructor
-    @Getter
-    @Setter
-    private static class FakeHeadEntry {
-        private final String texturesProperty;
-        private final String fakeHeadSkinUrl;
-        private PlayerEntity entity;
-
-        @Override
-        public boolean equals(Object o) {
-            // We don't care about the equality of the entity as that is not used for caching purposes
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            FakeHeadEntry that = (FakeHeadEntry) o;
-            return Objects.equals(texturesProperty, that.texturesProperty) && Objects.equals(fakeHeadSkinUrl, that.fakeHeadSkinUrl);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(texturesProperty, fakeHeadSkinUrl);
-        }
+    /**
+     * Full texture URLs, as not every skin source names its textures by hash, and whether ears were drawn onto the
+     * texture, which changes its data under the same URL.
+     */
+    private record MergedSkinKey(String skinUrl, boolean skinEars, String headSkinUrl, boolean headSkinEars) {
     }
-
 }
\ No newline at end of file
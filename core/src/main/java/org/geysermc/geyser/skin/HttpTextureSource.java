@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.skin.SkinProvider.CapeProvider;
+import org.geysermc.geyser.util.WebUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Downloads textures over HTTP. The connections themselves are blocking, so they run on a dedicated pool; how many run
+ * at once is bounded by the per-host limit of the {@link TextureFetcher} in front of this source.
+ */
+public class HttpTextureSource implements TextureSource {
+    private final ExecutorService executor = Executors.newCachedThreadPool(new DefaultThreadFactory("Geyser texture download thread", true));
+
+    @Override
+    public CompletableFuture<BufferedImage> requestImage(String url, @Nullable CapeProvider provider) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return downloadImage(url, provider);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<JsonNode> requestJson(String url) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return WebUtils.getJson(url);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static BufferedImage downloadImage(String imageUrl, @Nullable CapeProvider provider) throws IOException {
+        BufferedImage image;
+        if (provider == CapeProvider.FIVEZIG) {
+            image = readFiveZigCape(imageUrl);
+        } else {
+            HttpURLConnection con = (HttpURLConnection) new URL(imageUrl).openConnection();
+            con.setRequestProperty("User-Agent", "Geyser-" + GeyserImpl.getInstance().getPlatformType().toString() + "/" + GeyserImpl.VERSION);
+            con.setConnectTimeout(10000);
+            con.setReadTimeout(10000);
+
+            image = ImageIO.read(con.getInputStream());
+        }
+
+        if (image == null) {
+            throw new IllegalArgumentException("Failed to read image from: %s (cape provider=%s)".formatted(imageUrl, provider));
+        }
+        return image;
+    }
+
+    private static @Nullable BufferedImage readFiveZigCape(String url) throws IOException {
+        JsonNode element = GeyserImpl.JSON_MAPPER.readTree(WebUtils.getBody(url));
+        if (element != null && element.isObject()) {
+            JsonNode capeElement = element.get("d");
+            if (capeElement == null || capeElement.isNull()) return null;
+            return ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(capeElement.textValue())));
+        }
+        return null;
+    }
+}
@@ -29,6 +29,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.ListTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
+import it.unimi.dsi.fastutil.bytes.ByteArrays;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.protocol.bedrock.data.skin.ImageData;
 import org.cloudburstmc.protocol.bedrock.data.skin.SerializedSkin;
@@ -46,9 +47,56 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 public class SkinManager {
+    /**
+     * When enabled, tab list entries for other players are sent with a shared placeholder skin, and their real skins
+     * follow a few at a time once the player is in the game. Players that come into view get their skin as they spawn.
+     */
+    public static final boolean DEFER_TAB_LIST_SKINS = Boolean.getBoolean("Geyser.DeferTabListSkins");
+    private static final String PLACEHOLDER_SKIN_ID = "geysermc:placeholder";
+
+    /**
+     * Sent in every tab list entry whose skin is deferred. A texture of a single colour compresses to almost nothing,
+     * so a large tab list costs little more than the names in it.
+     */
+    static final SerializedSkin PLACEHOLDER_SKIN = createPlaceholderSkin();
+
+    private static final LongAdder TAB_LIST_ENTRIES = new LongAdder();
+    private static final LongAdder PLACEHOLDER_ENTRIES = new LongAdder();
+    private static final LongAdder DEFERRED_SKINS = new LongAdder();
+
+    /**
+     * Builds the player list entry sent when a player is added to the tab list, which only carries a placeholder skin
+     * if skins are deferred.
+     */
+    public static PlayerListPacket.Entry buildTabListEntry(GeyserSession session, PlayerEntity playerEntity) {
+        PlayerListPacket.Entry entry;
+        if (DEFER_TAB_LIST_SKINS && !playerEntity.getUuid().equals(session.getPlayerEntity().getUuid())) {
+            entry = buildEntry(session, playerEntity.getUuid(), playerEntity.getUsername(), playerEntity.getGeyserId(), PLACEHOLDER_SKIN);
+            session.getTabListSkinCache().add(playerEntity.getUuid());
+            PLACEHOLDER_ENTRIES.increment();
+        } else {
+            entry = buildCachedEntry(session, playerEntity);
+        }
+
+        TAB_LIST_ENTRIES.increment();
+        return entry;
+    }
+
+    /**
+     * Requests and sends the real skin of a player whose tab list entry was sent with a placeholder.
+     */
+    public static void sendDeferredSkin(GeyserSession session, PlayerEntity entity, Runnable onComplete) {
+        requestAndHandleSkinAndCape(entity, session, skinAndCape -> {
+            if (skinAndCape != null) {
+                DEFERRED_SKINS.increment();
+            }
+            onComplete.run();
+        });
+    }
 
     /**
      * Builds a Bedrock player list entry from our existing, cached Bedrock skin information
@@ -98,8 +146,11 @@ public class SkinManager {
                                                             SkinProvider.Skin skin,
                                                             SkinProvider.Cape cape,
                                                             SkinProvider.SkinGeometry geometry) {
-        SerializedSkin serializedSkin = getSkin(skin.getTextureUrl(), skin, cape, geometry);
+        return buildEntry(session, uuid, username, geyserId, getSkin(skin.getTextureUrl(), skin, cape, geometry));
+    }
 
+    private static PlayerListPacket.Entry buildEntry(GeyserSession session, UUID uuid, String username, long geyserId,
+                                                     SerializedSkin serializedSkin) {
         // This attempts to find the XUID of the player so profile images show up for Xbox accounts
         String xuid = "";
         GeyserSession playerSession = GeyserImpl.getInstance().connectionByUuid(uuid);
@@ -167,6 +218,32 @@ public class SkinManager {
                 "", true, false, false, cape.capeId(), skinId);
     }
 
+    private static SerializedSkin createPlaceholderSkin() {
+        byte[] skinData = new byte[64 * 64 * 4];
+        for (int i = 0; i < skinData.length; i += 4) {
+            // Opaque grey, so players that spawn before their skin arrives are still visible
+            skinData[i] = (byte) 0x80;
+            skinData[i + 1] = (byte) 0x80;
+            skinData[i + 2] = (byte) 0x80;
+            skinData[i + 3] = (byte) 0xFF;
+        }
+        SkinProvider.SkinGeometry geometry = SkinProvider.SkinGeometry.WIDE;
+        return SerializedSkin.of(PLACEHOLDER_SKIN_ID, "", geometry.geometryName(),
+                ImageData.of(skinData), Collections.emptyList(),
+                ImageData.of(ByteArrays.EMPTY_ARRAY), geometry.geometryData(),
+                "", true, false, false, "", PLACEHOLDER_SKIN_ID);
+    }
+
+    public static TabListSkinStats getTabListSkinStats() {
+        return new TabListSkinStats(DEFER_TAB_LIST_SKINS, TAB_LIST_ENTRIES.sum(), PLACEHOLDER_ENTRIES.sum(), DEFERRED_SKINS.sum());
+    }
+
+    /**
+     * @param placeholderEntries tab list entries sent with the placeholder skin
+     */
+    public record TabListSkinStats(boolean deferred, long entries, long placeholderEntries, long deferredSkinsSent) {
+    }
+
     public static void requestAndHandleSkinAndCape(PlayerEntity entity, GeyserSession session,
                                                    Consumer<SkinProvider.SkinAndCape> skinAndCapeConsumer) {
         SkinProvider.requestSkinData(entity).whenCompleteAsync((skinData, throwable) -> {
@@ -40,17 +40,13 @@ import org.geysermc.geyser.entity.type.player.PlayerEntity;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.util.FileUtils;
-import org.geysermc.geyser.util.WebUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
@@ -58,7 +54,18 @@ import java.util.function.Predicate;
 
 public class SkinProvider {
     private static final boolean ALLOW_THIRD_PARTY_CAPES = GeyserImpl.getInstance().getConfig().isAllowThirdPartyCapes();
+    /**
+     * How many texture and profile requests may run against one host at the same time.
+     */
+    private static final int MAX_REQUESTS_PER_HOST = Integer.getInteger("Geyser.MaxTextureRequestsPerHost", 8);
+    /**
+     * Whether textures cached on disk should be compressed.
+     */
+    private static final boolean COMPRESS_CACHED_TEXTURES = Boolean.getBoolean("Geyser.CompressCachedTextures");
     private static ExecutorService EXECUTOR_SERVICE;
+    private static HttpTextureSource HTTP_TEXTURE_SOURCE;
+    private static TextureFetcher TEXTURE_FETCHER;
+    private static TextureDiskCache TEXTURE_DISK_CACHE;
 
     static final Skin EMPTY_SKIN;
     static final Cape EMPTY_CAPE = new Cape("", "no-cape", ByteArrays.EMPTY_ARRAY, -1, true);
@@ -145,6 +152,38 @@ public class SkinProvider {
             EXECUTOR_SERVICE.shutdown();
             EXECUTOR_SERVICE = null;
         }
+        if (HTTP_TEXTURE_SOURCE != null) {
+            HTTP_TEXTURE_SOURCE.shutdown();
+            HTTP_TEXTURE_SOURCE = null;
+        }
+        TEXTURE_FETCHER = null;
+    }
+
+    private static TextureFetcher getTextureFetcher() {
+        if (TEXTURE_FETCHER == null) {
+            HTTP_TEXTURE_SOURCE = new HttpTextureSource();
+            TEXTURE_FETCHER = new TextureFetcher(HTTP_TEXTURE_SOURCE, MAX_REQUESTS_PER_HOST);
+        }
+        return TEXTURE_FETCHER;
+    }
+
+    private static TextureDiskCache getTextureDiskCache() {
+        if (TEXTURE_DISK_CACHE == null) {
+            TEXTURE_DISK_CACHE = new TextureDiskCache(GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images"),
+                    COMPRESS_CACHED_TEXTURES);
+        }
+        return TEXTURE_DISK_CACHE;
+    }
+
+    /**
+     * Replaces where textures are retrieved from, such as with an in-memory source.
+     */
+    public static void setTextureSource(TextureSource source) {
+        if (HTTP_TEXTURE_SOURCE != null) {
+            HTTP_TEXTURE_SOURCE.shutdown();
+            HTTP_TEXTURE_SOURCE = null;
+        }
+        TEXTURE_FETCHER = new TextureFetcher(source, MAX_REQUESTS_PER_HOST);
     }
 
     public static void registerCacheImageTask(GeyserImpl geyser) {
@@ -246,198 +285,173 @@ public class SkinProvider {
         }
 
         return requestSkinAndCape(entity.getUuid(), data.skinUrl(), data.capeUrl())
-                .thenApplyAsync(skinAndCape -> {
-                    try {
-                        Skin skin = skinAndCape.skin();
-                        Cape cape = skinAndCape.cape();
-                        SkinGeometry geometry = data.isAlex() ? SkinGeometry.SLIM : SkinGeometry.WIDE;
-
-                        // Whether we should see if this player has a Bedrock skin we should check for on failure of
-                        // any skin property
-                        boolean checkForBedrock = entity.getUuid().version() != 4;
-
-                        if (cape.failed() && checkForBedrock) {
-                            cape = getCachedBedrockCape(entity.getUuid());
-                        }
+                .thenCompose(skinAndCape -> {
+                    Cape cape = skinAndCape.cape();
+                    SkinGeometry geometry = data.isAlex() ? SkinGeometry.SLIM : SkinGeometry.WIDE;
 
-                        if (cape.failed() && ALLOW_THIRD_PARTY_CAPES) {
-                            cape = getOrDefault(requestUnofficialCape(
-                                    cape, entity.getUuid(),
-                                    entity.getUsername(), false
-                            ), EMPTY_CAPE, CapeProvider.VALUES.length * 3);
-                        }
+                    // Whether we should see if this player has a Bedrock skin we should check for on failure of
+                    // any skin property
+                    boolean checkForBedrock = entity.getUuid().version() != 4;
 
-                        boolean isDeadmau5 = "deadmau5".equals(entity.getUsername());
-                        // Not a bedrock player check for ears
-                        if (geometry.failed() && (ALLOW_THIRD_PARTY_EARS || isDeadmau5)) {
-                            boolean isEars;
-
-                            // Its deadmau5, gotta support his skin :)
-                            if (isDeadmau5) {
-                                isEars = true;
-                            } else {
-                                // Get the ears texture for the player
-                                skin = getOrDefault(requestUnofficialEars(
-                                        skin, entity.getUuid(), entity.getUsername(), false
-                                ), skin, 3);
-
-                                isEars = skin.isEars();
-                            }
-
-                            // Does the skin have an ears texture
-                            if (isEars) {
-                                // Get the new geometry
-                                geometry = SkinGeometry.getEars(data.isAlex());
+                    if (cape.failed() && checkForBedrock) {
+                        cape = getCachedBedrockCape(entity.getUuid());
+                    }
 
-                                // Store the skin and geometry for the ears
-                                storeEarSkin(skin);
-                                storeEarGeometry(entity.getUuid(), data.isAlex());
-                            }
-                        }
+                    CompletableFuture<Cape> capeFuture = CompletableFuture.completedFuture(cape);
+                    if (cape.failed() && ALLOW_THIRD_PARTY_CAPES) {
+                        capeFuture = requestUnofficialCape(cape, entity.getUuid(), entity.getUsername(), 0);
+                    }
 
-                        return new SkinData(skin, cape, geometry);
-                    } catch (Exception e) {
-                        GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.skin.fail", entity.getUuid()), e);
+                    boolean isDeadmau5 = "deadmau5".equals(entity.getUsername());
+                    // Not a bedrock player check for ears
+                    boolean checkForEars = geometry.failed() && (ALLOW_THIRD_PARTY_EARS || isDeadmau5);
+                    CompletableFuture<Skin> skinFuture = CompletableFuture.completedFuture(skinAndCape.skin());
+                    if (checkForEars && !isDeadmau5) {
+                        // Get the ears texture for the player
+                        skinFuture = requestUnofficialEars(skinAndCape.skin(), entity.getUuid(), entity.getUsername(), 0);
                     }
 
-                    return new SkinData(skinAndCape.skin(), skinAndCape.cape(), null);
+                    return capeFuture.thenCombine(skinFuture, (finalCape, skin) -> {
+                        SkinGeometry finalGeometry = geometry;
+                        // Does the skin have an ears texture? Its deadmau5, gotta support his skin :)
+                        if (checkForEars && (isDeadmau5 || skin.isEars())) {
+                            // Get the new geometry
+                            finalGeometry = SkinGeometry.getEars(data.isAlex());
+
+                            // Store the skin and geometry for the ears
+                            storeEarSkin(skin);
+                            storeEarGeometry(entity.getUuid(), data.isAlex());
+                        }
+
+                        return new SkinData(skin, finalCape, finalGeometry);
+                    }).exceptionally(throwable -> {
+                        GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.skin.fail", entity.getUuid()), throwable);
+                        return new SkinData(skinAndCape.skin(), skinAndCape.cape(), null);
+                    });
                 });
     }
 
     private static CompletableFuture<SkinAndCape> requestSkinAndCape(UUID playerId, String skinUrl, String capeUrl) {
-        return CompletableFuture.supplyAsync(() -> {
-            long time = System.currentTimeMillis();
-
-            CapeProvider provider = capeUrl != null ? CapeProvider.MINECRAFT : null;
-            SkinAndCape skinAndCape = new SkinAndCape(
-                    getOrDefault(requestSkin(playerId, skinUrl, false), EMPTY_SKIN, 5),
-                    getOrDefault(requestCape(capeUrl, provider, false), EMPTY_CAPE, 5)
-            );
+        long time = System.currentTimeMillis();
 
-            GeyserImpl.getInstance().getLogger().debug("Took " + (System.currentTimeMillis() - time) + "ms for " + playerId);
-            return skinAndCape;
-        }, getExecutorService());
+        CapeProvider provider = capeUrl != null ? CapeProvider.MINECRAFT : null;
+        return withDefault(requestSkin(playerId, skinUrl), EMPTY_SKIN, 5)
+                .thenCombine(withDefault(requestCape(capeUrl, provider), EMPTY_CAPE, 5), (skin, cape) -> {
+                    GeyserImpl.getInstance().getLogger().debug("Took " + (System.currentTimeMillis() - time) + "ms for " + playerId);
+                    return new SkinAndCape(skin, cape);
+                });
     }
 
-    static CompletableFuture<Skin> requestSkin(UUID playerId, String textureUrl, boolean newThread) {
+    static CompletableFuture<Skin> requestSkin(UUID playerId, String textureUrl) {
         if (textureUrl == null || textureUrl.isEmpty()) return CompletableFuture.completedFuture(EMPTY_SKIN);
-        CompletableFuture<Skin> requestedSkin = requestedSkins.get(textureUrl);
-        if (requestedSkin != null) {
-            // already requested
-            return requestedSkin;
-        }
 
         Skin cachedSkin = CACHED_JAVA_SKINS.getIfPresent(textureUrl);
         if (cachedSkin != null) {
             return CompletableFuture.completedFuture(cachedSkin);
         }
 
-        CompletableFuture<Skin> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplySkin(playerId, textureUrl), getExecutorService())
-                    .whenCompleteAsync((skin, throwable) -> {
-                        skin.updated = true;
-                        CACHED_JAVA_SKINS.put(textureUrl, skin);
-                        requestedSkins.remove(textureUrl);
-                    });
-            requestedSkins.put(textureUrl, future);
-        } else {
-            Skin skin = supplySkin(playerId, textureUrl);
-            future = CompletableFuture.completedFuture(skin);
-            CACHED_JAVA_SKINS.put(textureUrl, skin);
+        CompletableFuture<Skin> future = new CompletableFuture<>();
+        CompletableFuture<Skin> requestedSkin = requestedSkins.putIfAbsent(textureUrl, future);
+        if (requestedSkin != null) {
+            // already requested
+            return requestedSkin;
         }
+
+        requestImageData(textureUrl, null)
+                .thenApply(data -> new Skin(playerId, textureUrl, data, System.currentTimeMillis(), false, false))
+                .exceptionally(throwable -> new Skin(playerId, "empty", EMPTY_SKIN.getSkinData(), System.currentTimeMillis(), false, false))
+                .thenAccept(skin -> {
+                    skin.updated = true;
+                    CACHED_JAVA_SKINS.put(textureUrl, skin);
+                    requestedSkins.remove(textureUrl, future);
+                    future.complete(skin);
+                });
         return future;
     }
 
-    private static CompletableFuture<Cape> requestCape(String capeUrl, CapeProvider provider, boolean newThread) {
+    private static CompletableFuture<Cape> requestCape(String capeUrl, CapeProvider provider) {
         if (capeUrl == null || capeUrl.isEmpty()) return CompletableFuture.completedFuture(EMPTY_CAPE);
-        CompletableFuture<Cape> requestedCape = requestedCapes.get(capeUrl);
-        if (requestedCape != null) {
-            return requestedCape;
-        }
 
         Cape cachedCape = CACHED_JAVA_CAPES.getIfPresent(capeUrl);
         if (cachedCape != null) {
             return CompletableFuture.completedFuture(cachedCape);
         }
 
-        CompletableFuture<Cape> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplyCape(capeUrl, provider), getExecutorService())
-                    .whenCompleteAsync((cape, throwable) -> {
-                        CACHED_JAVA_CAPES.put(capeUrl, cape);
-                        requestedCapes.remove(capeUrl);
-                    });
-            requestedCapes.put(capeUrl, future);
-        } else {
-            Cape cape = supplyCape(capeUrl, provider); // blocking
-            future = CompletableFuture.completedFuture(cape);
-            CACHED_JAVA_CAPES.put(capeUrl, cape);
+        CompletableFuture<Cape> future = new CompletableFuture<>();
+        CompletableFuture<Cape> requestedCape = requestedCapes.putIfAbsent(capeUrl, future);
+        if (requestedCape != null) {
+            return requestedCape;
         }
+
+        requestImageData(capeUrl, provider)
+                .exceptionally(throwable -> EMPTY_CAPE.capeData())
+                .thenAccept(data -> {
+                    String[] urlSection = capeUrl.split("/"); // A real url is expected at this stage
+                    Cape cape = new Cape(
+                            capeUrl,
+                            urlSection[urlSection.length - 1], // get the texture id and use it as cape id
+                            data,
+                            System.currentTimeMillis(),
+                            data.length == 0
+                    );
+                    CACHED_JAVA_CAPES.put(capeUrl, cape);
+                    requestedCapes.remove(capeUrl, future);
+                    future.complete(cape);
+                });
         return future;
     }
 
-    private static CompletableFuture<Cape> requestUnofficialCape(Cape officialCape, UUID playerId,
-                                                                String username, boolean newThread) {
-        if (officialCape.failed() && ALLOW_THIRD_PARTY_CAPES) {
-            for (CapeProvider provider : CapeProvider.VALUES) {
-                if (provider.type != CapeUrlType.USERNAME && IS_NPC.test(playerId)) {
-                    continue;
-                }
-
-                Cape cape1 = getOrDefault(
-                        requestCape(provider.getUrlFor(playerId, username), provider, newThread),
-                        EMPTY_CAPE, 4
-                );
-                if (!cape1.failed()) {
-                    return CompletableFuture.completedFuture(cape1);
-                }
+    /**
+     * Tries the third-party cape providers in order of priority, starting at the given one, until one has a cape.
+     */
+    private static CompletableFuture<Cape> requestUnofficialCape(Cape officialCape, UUID playerId, String username, int providerIndex) {
+        for (int i = providerIndex; i < CapeProvider.VALUES.length; i++) {
+            CapeProvider provider = CapeProvider.VALUES[i];
+            if (provider.type != CapeUrlType.USERNAME && IS_NPC.test(playerId)) {
+                continue;
             }
-        }
-        return CompletableFuture.completedFuture(officialCape);
-    }
-
-    private static CompletableFuture<Skin> requestEars(String earsUrl, boolean newThread, Skin skin) {
-        if (earsUrl == null || earsUrl.isEmpty()) return CompletableFuture.completedFuture(skin);
 
-        CompletableFuture<Skin> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplyEars(skin, earsUrl), getExecutorService())
-                    .whenCompleteAsync((outSkin, throwable) -> { });
-        } else {
-            Skin ears = supplyEars(skin, earsUrl); // blocking
-            future = CompletableFuture.completedFuture(ears);
+            int nextProvider = i + 1;
+            return withDefault(requestCape(provider.getUrlFor(playerId, username), provider), EMPTY_CAPE, 4)
+                    .thenCompose(cape -> cape.failed() ? requestUnofficialCape(officialCape, playerId, username, nextProvider)
+                            : CompletableFuture.completedFuture(cape));
         }
-        return future;
+        return CompletableFuture.completedFuture(officialCape);
     }
 
     /**
-     * Try and find an ear texture for a Java player
+     * Try and find an ear texture for a Java player, trying the ears providers in order of priority
      *
      * @param officialSkin The current players skin
      * @param playerId The players UUID
      * @param username The players username
-     * @param newThread Should we start in a new thread
+     * @param providerIndex The first provider to try
      * @return The updated skin with ears
      */
-    private static CompletableFuture<Skin> requestUnofficialEars(Skin officialSkin, UUID playerId, String username, boolean newThread) {
-        for (EarsProvider provider : EarsProvider.VALUES) {
+    private static CompletableFuture<Skin> requestUnofficialEars(Skin officialSkin, UUID playerId, String username, int providerIndex) {
+        for (int i = providerIndex; i < EarsProvider.VALUES.length; i++) {
+            EarsProvider provider = EarsProvider.VALUES[i];
             if (provider.type != CapeUrlType.USERNAME && IS_NPC.test(playerId)) {
                 continue;
             }
 
-            Skin skin1 = getOrDefault(
-                    requestEars(provider.getUrlFor(playerId, username), newThread, officialSkin),
-                    officialSkin, 4
-            );
-            if (skin1.isEars()) {
-                return CompletableFuture.completedFuture(skin1);
-            }
+            int nextProvider = i + 1;
+            return withDefault(requestEars(provider.getUrlFor(playerId, username), officialSkin), officialSkin, 4)
+                    .thenCompose(skin -> skin.isEars() ? CompletableFuture.completedFuture(skin)
+                            : requestUnofficialEars(officialSkin, playerId, username, nextProvider));
         }
 
         return CompletableFuture.completedFuture(officialSkin);
     }
 
+    private static CompletableFuture<Skin> requestEars(String earsUrl, Skin skin) {
+        if (earsUrl == null || earsUrl.isEmpty()) return CompletableFuture.completedFuture(skin);
+
+        return getTextureFetcher().requestImage(earsUrl, null)
+                .thenApply(ears -> applyEars(skin, ears))
+                .exceptionally(throwable -> skin);
+    }
+
     static void storeBedrockSkin(UUID playerID, String skinId, byte[] skinData) {
         Skin skin = new Skin(playerID, skinId, skinData, System.currentTimeMillis(), true, false);
         CACHED_BEDROCK_SKINS.put(skin.getTextureUrl(), skin);
@@ -472,105 +486,88 @@ public class SkinProvider {
         cachedGeometry.put(playerID, SkinGeometry.getEars(isSlim));
     }
 
-    private static Skin supplySkin(UUID uuid, String textureUrl) {
-        try {
-            byte[] skin = requestImageData(textureUrl, null);
-            return new Skin(uuid, textureUrl, skin, System.currentTimeMillis(), false, false);
-        } catch (Exception ignored) {} // just ignore I guess
-
-        return new Skin(uuid, "empty", EMPTY_SKIN.getSkinData(), System.currentTimeMillis(), false, false);
-    }
-
-    private static Cape supplyCape(String capeUrl, CapeProvider provider) {
-        byte[] cape = EMPTY_CAPE.capeData();
-        try {
-            cape = requestImageData(capeUrl, provider);
-        } catch (Exception ignored) {
-        } // just ignore I guess
-
-        String[] urlSection = capeUrl.split("/"); // A real url is expected at this stage
-
-        return new Cape(
-                capeUrl,
-                urlSection[urlSection.length - 1], // get the texture id and use it as cape id
-                cape,
+    /**
+     * Place the ears texture on the skin
+     *
+     * @param existingSkin The players current skin
+     * @param ears The ears texture
+     * @return The updated skin with ears
+     */
+    private static Skin applyEars(Skin existingSkin, BufferedImage ears) {
+        // Convert the skin data to a BufferedImage
+        int height = (existingSkin.getSkinData().length / 4 / 64);
+        BufferedImage skinImage = imageDataToBufferedImage(existingSkin.getSkinData(), 64, height);
+
+        // Create a new image with the ears texture over it
+        BufferedImage newSkin = new BufferedImage(skinImage.getWidth(), skinImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = (Graphics2D) newSkin.getGraphics();
+        g.drawImage(skinImage, 0, 0, null);
+        g.drawImage(ears, 24, 0, null);
+
+        // Turn the buffered image back into an array of bytes
+        byte[] data = bufferedImageToImageData(newSkin);
+        skinImage.flush();
+
+        // Create a new skin object with the new infomation
+        return new Skin(
+                existingSkin.getSkinOwner(),
+                existingSkin.getTextureUrl(),
+                data,
                 System.currentTimeMillis(),
-                cape.length == 0
+                true,
+                true
         );
     }
 
     /**
-     * Get the ears texture and place it on the skin from the given URL
-     *
-     * @param existingSkin The players current skin
-     * @param earsUrl The URL to get the ears texture from
-     * @return The updated skin with ears
+     * Blocking variant of {@link #requestImageAsync(String, CapeProvider)}; must not be used on the skin executor.
      */
-    private static Skin supplyEars(Skin existingSkin, String earsUrl) {
-        try {
-            // Get the ears texture
-            BufferedImage ears = ImageIO.read(new URL(earsUrl));
-            if (ears == null) throw new NullPointerException();
-
-            // Convert the skin data to a BufferedImage
-            int height = (existingSkin.getSkinData().length / 4 / 64);
-            BufferedImage skinImage = imageDataToBufferedImage(existingSkin.getSkinData(), 64, height);
-
-            // Create a new image with the ears texture over it
-            BufferedImage newSkin = new BufferedImage(skinImage.getWidth(), skinImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g = (Graphics2D) newSkin.getGraphics();
-            g.drawImage(skinImage, 0, 0, null);
-            g.drawImage(ears, 24, 0, null);
-
-            // Turn the buffered image back into an array of bytes
-            byte[] data = bufferedImageToImageData(newSkin);
-            skinImage.flush();
-
-            // Create a new skin object with the new infomation
-            return new Skin(
-                    existingSkin.getSkinOwner(),
-                    existingSkin.getTextureUrl(),
-                    data,
-                    System.currentTimeMillis(),
-                    true,
-                    true
-            );
-        } catch (Exception ignored) {} // just ignore I guess
-
-        return existingSkin;
-    }
-
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public static BufferedImage requestImage(String imageUrl, CapeProvider provider) throws IOException {
-        BufferedImage image = null;
-
-        // First see if we have a cached file. We also update the modification stamp so we know when the file was last used
-        File imageFile = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").resolve(UUID.nameUUIDFromBytes(imageUrl.getBytes()) + ".png").toFile();
-        if (imageFile.exists()) {
-            try {
-                GeyserImpl.getInstance().getLogger().debug("Reading cached image from file " + imageFile.getPath() + " for " + imageUrl);
-                imageFile.setLastModified(System.currentTimeMillis());
-                image = ImageIO.read(imageFile);
-            } catch (IOException ignored) {}
-        }
-
-        // If no image we download it
-        if (image == null) {
-            image = downloadImage(imageUrl, provider);
-            GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
-
-            // Write to cache if we are allowed
-            if (GeyserImpl.getInstance().getConfig().getCacheImages() > 0) {
-                imageFile.getParentFile().mkdirs();
-                try {
-                    ImageIO.write(image, "png", imageFile);
-                    GeyserImpl.getInstance().getLogger().debug("Writing cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                } catch (IOException e) {
-                    GeyserImpl.getInstance().getLogger().error("Failed to write cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                }
+        try {
+            return requestImageAsync(imageUrl, provider).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException ioException) {
+                throw ioException.getCause();
             }
+            throw new IOException(e.getCause());
         }
+    }
+
+    static CompletableFuture<BufferedImage> requestImageAsync(String imageUrl, CapeProvider provider) {
+        return requestTexture(imageUrl, provider).thenApply(TextureData::toImage);
+    }
 
+    private static CompletableFuture<TextureData> requestTexture(String imageUrl, CapeProvider provider) {
+        // First see if we have already converted this texture
+        TextureDiskCache diskCache = getTextureDiskCache();
+        return CompletableFuture.supplyAsync(() -> diskCache.read(imageUrl, provider != null), getExecutorService())
+                .thenCompose(cachedTexture -> {
+                    if (cachedTexture != null) {
+                        GeyserImpl.getInstance().getLogger().debug("Read cached texture for " + imageUrl);
+                        return CompletableFuture.completedFuture(cachedTexture);
+                    }
+
+                    // If no texture we download it
+                    return getTextureFetcher().requestImage(imageUrl, provider).thenApply(image -> {
+                        GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
+                        BufferedImage resized = resizeImage(image, provider);
+                        TextureData texture = TextureData.from(resized);
+                        resized.flush();
+
+                        // Write to cache if we are allowed
+                        if (GeyserImpl.getInstance().getConfig().getCacheImages() > 0) {
+                            try {
+                                diskCache.write(imageUrl, provider != null, texture);
+                            } catch (IOException e) {
+                                GeyserImpl.getInstance().getLogger().error("Failed to write cached texture for " + imageUrl, e);
+                            }
+                        }
+                        return texture;
+                    });
+                });
+    }
+
+    private static BufferedImage resizeImage(BufferedImage image, CapeProvider provider) {
         // if the requested image is a cape
         if (provider != null) {
             if (image.getWidth() > 64 || image.getHeight() > 32) {
@@ -604,11 +601,8 @@ public class SkinProvider {
         return image;
     }
 
-    private static byte[] requestImageData(String imageUrl, CapeProvider provider) throws Exception {
-        BufferedImage image = requestImage(imageUrl, provider);
-        byte[] data = bufferedImageToImageData(image);
-        image.flush();
-        return data;
+    private static CompletableFuture<byte[]> requestImageData(String imageUrl, CapeProvider provider) {
+        return requestTexture(imageUrl, provider).thenApply(TextureData::data);
     }
 
     /**
@@ -618,23 +612,22 @@ public class SkinProvider {
      * @return a completable GameProfile with textures included
      */
     public static CompletableFuture<@Nullable String> requestTexturesFromUUID(String uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                JsonNode node = WebUtils.getJson("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid);
-                JsonNode properties = node.get("properties");
-                if (properties == null) {
-                    GeyserImpl.getInstance().getLogger().debug("No properties found in Mojang response for " + uuid);
+        return getTextureFetcher().requestJson("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid)
+                .thenApply(node -> {
+                    JsonNode properties = node.get("properties");
+                    if (properties == null) {
+                        GeyserImpl.getInstance().getLogger().debug("No properties found in Mojang response for " + uuid);
+                        return null;
+                    }
+                    return node.get("properties").get(0).get("value").asText();
+                })
+                .exceptionally(e -> {
+                    GeyserImpl.getInstance().getLogger().debug("Unable to request textures for " + uuid);
+                    if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
+                        e.printStackTrace();
+                    }
                     return null;
-                }
-                return node.get("properties").get(0).get("value").asText();
-            } catch (Exception e) {
-                GeyserImpl.getInstance().getLogger().debug("Unable to request textures for " + uuid);
-                if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
-                    e.printStackTrace();
-                }
-                return null;
-            }
-        }, getExecutorService());
+                });
     }
 
     /**
@@ -644,57 +637,28 @@ public class SkinProvider {
      * @return a completable GameProfile with textures included
      */
     public static CompletableFuture<@Nullable String> requestTexturesFromUsername(String username) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Offline skin, or no present UUID
-                JsonNode node = WebUtils.getJson("https://api.mojang.com/users/profiles/minecraft/" + username);
-                JsonNode id = node.get("id");
-                if (id == null) {
-                    GeyserImpl.getInstance().getLogger().debug("No UUID found in Mojang response for " + username);
+        // Offline skin, or no present UUID
+        return getTextureFetcher().requestJson("https://api.mojang.com/users/profiles/minecraft/" + username)
+                .thenApply(node -> {
+                    JsonNode id = node.get("id");
+                    if (id == null) {
+                        GeyserImpl.getInstance().getLogger().debug("No UUID found in Mojang response for " + username);
+                        return null;
+                    }
+                    return id.asText();
+                })
+                .exceptionally(e -> {
+                    if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
+                        e.printStackTrace();
+                    }
                     return null;
-                }
-                return id.asText();
-            } catch (Exception e) {
-                if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
-                    e.printStackTrace();
-                }
-                return null;
-            }
-        }, getExecutorService()).thenCompose(uuid -> {
-            if (uuid == null) {
-                return CompletableFuture.completedFuture(null);
-            }
-            return requestTexturesFromUUID(uuid);
-        });
-    }
-
-    private static BufferedImage downloadImage(String imageUrl, CapeProvider provider) throws IOException {
-        BufferedImage image;
-        if (provider == CapeProvider.FIVEZIG) {
-            image = readFiveZigCape(imageUrl);
-        } else {
-            HttpURLConnection con = (HttpURLConnection) new URL(imageUrl).openConnection();
-            con.setRequestProperty("User-Agent", "Geyser-" + GeyserImpl.getInstance().getPlatformType().toString() + "/" + GeyserImpl.VERSION);
-            con.setConnectTimeout(10000);
-            con.setReadTimeout(10000);
-
-            image = ImageIO.read(con.getInputStream());
-        }
-
-        if (image == null) {
-            throw new IllegalArgumentException("Failed to read image from: %s (cape provider=%s)".formatted(imageUrl, provider));
-        }
-        return image;
-    }
-
-    private static @Nullable BufferedImage readFiveZigCape(String url) throws IOException {
-        JsonNode element = GeyserImpl.JSON_MAPPER.readTree(WebUtils.getBody(url));
-        if (element != null && element.isObject()) {
-            JsonNode capeElement = element.get("d");
-            if (capeElement == null || capeElement.isNull()) return null;
-            return ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(capeElement.textValue())));
-        }
-        return null;
+                })
+                .thenCompose(uuid -> {
+                    if (uuid == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return requestTexturesFromUUID(uuid);
+                });
     }
 
     public static BufferedImage scale(BufferedImage bufferedImage, int newWidth, int newHeight) {
@@ -707,18 +671,6 @@ public class SkinProvider {
         return resized;
     }
 
-    /**
-     * Get the RGBA int for a given index in some image data
-     *
-     * @param index Index to get
-     * @param data Image data to find in
-     * @return An int representing RGBA
-     */
-    private static int getRGBA(int index, byte[] data) {
-        return (data[index] & 0xFF) << 16 | (data[index + 1] & 0xFF) << 8 |
-                data[index + 2] & 0xFF | (data[index + 3] & 0xFF) << 24;
-    }
-
     /**
      * Convert a byte[] to a BufferedImage
      *
@@ -728,16 +680,7 @@ public class SkinProvider {
      * @return The converted BufferedImage
      */
     public static BufferedImage imageDataToBufferedImage(byte[] imageData, int imageWidth, int imageHeight) {
-        BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
-        int index = 0;
-        for (int y = 0; y < imageHeight; y++) {
-            for (int x = 0; x < imageWidth; x++) {
-                image.setRGB(x, y, getRGBA(index, imageData));
-                index += 4;
-            }
-        }
-
-        return image;
+        return new TextureData(imageWidth, imageHeight, imageData).toImage();
     }
 
     /**
@@ -747,24 +690,17 @@ public class SkinProvider {
      * @return The converted byte[]
      */
     public static byte[] bufferedImageToImageData(BufferedImage image) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(image.getWidth() * 4 + image.getHeight() * 4);
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int rgba = image.getRGB(x, y);
-                outputStream.write((rgba >> 16) & 0xFF);
-                outputStream.write((rgba >> 8) & 0xFF);
-                outputStream.write(rgba & 0xFF);
-                outputStream.write((rgba >> 24) & 0xFF);
-            }
-        }
-        return outputStream.toByteArray();
+        return TextureData.from(image).data();
     }
 
-    public static <T> T getOrDefault(CompletableFuture<T> future, T defaultValue, int timeoutInSeconds) {
-        try {
-            return future.get(timeoutInSeconds, TimeUnit.SECONDS);
-        } catch (Exception ignored) {}
-        return defaultValue;
+    /**
+     * Completes with the default value if the future fails or does not complete in time. Only the returned future is
+     * affected, so the same request can be shared with other callers.
+     */
+    static <T> CompletableFuture<T> withDefault(CompletableFuture<T> future, T defaultValue, int timeoutInSeconds) {
+        return future.copy()
+                .completeOnTimeout(defaultValue, timeoutInSeconds, TimeUnit.SECONDS)
+                .exceptionally(throwable -> defaultValue);
     }
 
     public record SkinAndCape(Skin skin, Cape cape) {
@@ -77,7 +77,7 @@ public class SkullSkinManager extends SkinManager {
             SkinProvider.SkinData fallback = SkinProvider.determineFallbackSkinData(entity.getSkullUUID());
             applySkin.accept(fallback.skin(), null);
         } else {
-            SkinProvider.requestSkin(entity.getUuid(), data.skinUrl(), true)
+            SkinProvider.requestSkin(entity.getUuid(), data.skinUrl())
                     .whenCompleteAsync(applySkin);
         }
     }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A texture as Bedrock wants it: tightly packed RGBA bytes, row by row.
+ */
+public record TextureData(int width, int height, byte[] data) {
+
+    /**
+     * Converts an image by reading its pixels in one bulk operation instead of one {@link BufferedImage#getRGB(int, int)}
+     * call per pixel.
+     */
+    public static TextureData from(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] argb;
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+            // Already stored as ARGB ints; copy them straight out of the raster
+            argb = (int[]) image.getRaster().getDataElements(0, 0, width, height, null);
+        } else {
+            argb = image.getRGB(0, 0, width, height, null, 0, width);
+        }
+
+        byte[] data = new byte[argb.length * 4];
+        for (int i = 0, index = 0; i < argb.length; i++, index += 4) {
+            int pixel = argb[i];
+            data[index] = (byte) (pixel >> 16); // Red
+            data[index + 1] = (byte) (pixel >> 8); // Green
+            data[index + 2] = (byte) pixel; // Blue
+            data[index + 3] = (byte) (pixel >>> 24); // Alpha
+        }
+        return new TextureData(width, height, data);
+    }
+
+    /**
+     * @return a new {@link BufferedImage#TYPE_INT_ARGB} image holding this texture, written in one bulk operation
+     */
+    public BufferedImage toImage() {
+        int[] argb = new int[width * height];
+        for (int i = 0, index = 0; i < argb.length; i++, index += 4) {
+            argb[i] = (data[index] & 0xFF) << 16 | (data[index + 1] & 0xFF) << 8 | data[index + 2] & 0xFF
+                    | (data[index + 3] & 0xFF) << 24;
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.getRaster().setDataElements(0, 0, width, height, argb);
+        return image;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores converted textures on disk as raw RGBA, so a cache hit is a single file read with no image decoding.
+ * Files are named after the texture hash where the URL carries one, so the same texture is only stored once.
+ */
+public final class TextureDiskCache {
+    private static final int MAGIC = 0x47545831; // GTX1
+    private static final int HEADER_SIZE = 4 * 4;
+    /**
+     * Larger than any texture we keep, to guard against corrupted files.
+     */
+    private static final int MAX_SIZE = 1024;
+    /**
+     * Mojang's texture URLs end in a hash of the texture itself.
+     */
+    private static final Pattern MOJANG_TEXTURE = Pattern.compile("https?://textures\\.minecraft\\.net/texture/([0-9a-f]+)");
+
+    private final Path folder;
+    private final boolean compress;
+
+    /**
+     * @param compress whether texture data should be compressed, trading a little CPU for disk space
+     */
+    public TextureDiskCache(Path folder, boolean compress) {
+        this.folder = folder;
+        this.compress = compress;
+    }
+
+    /**
+     * @param cape whether the texture was processed as a cape
+     * @return the cached texture, or null if there is none or it could not be read
+     */
+    public @Nullable TextureData read(String url, boolean cape) {
+        Path file = fileFor(url, cape);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            // Update the modification stamp so we know when the file was last used
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                return null;
+            }
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            if (width <= 0 || height <= 0 || width > MAX_SIZE || height > MAX_SIZE) {
+                return null;
+            }
+            boolean compressed = buffer.getInt() != 0;
+            byte[] data = new byte[width * height * 4];
+            if (compressed) {
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(buffer);
+                    if (inflater.inflate(data) != data.length) {
+                        return null;
+                    }
+                } finally {
+                    inflater.end();
+                }
+            } else {
+                if (buffer.remaining() != data.length) {
+                    return null;
+                }
+                buffer.get(data);
+            }
+            return new TextureData(width, height, data);
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param cape whether the texture was processed as a cape
+     */
+    public void write(String url, boolean cape, TextureData texture) throws IOException {
+        byte[] data = texture.data();
+        if (compress) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(data);
+                deflater.finish();
+                ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 2);
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished()) {
+                    output.write(chunk, 0, deflater.deflate(chunk));
+                }
+                data = output.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + data.length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(texture.width());
+        buffer.putInt(texture.height());
+        buffer.putInt(compress ? 1 : 0);
+        buffer.put(data);
+
+        // Write next to the final file and move it into place, so readers never see a partial texture
+        Files.createDirectories(folder);
+        Path file = fileFor(url, cape);
+        Path temporary = Files.createTempFile(folder, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    Path fileFor(String url, boolean cape) {
+        Matcher matcher = MOJANG_TEXTURE.matcher(url);
+        String key = matcher.matches() ? matcher.group(1) : UUID.nameUUIDFromBytes(url.getBytes(StandardCharsets.UTF_8)).toString();
+        return folder.resolve((cape ? "cape-" : "") + key + ".rgba");
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.skin.SkinProvider.CapeProvider;
+
+import java.awt.image.BufferedImage;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sits in front of a {@link TextureSource}. Identical requests that are in flight at the same time share one fetch,
+ * and only a limited number of fetches run against each host at once; the rest wait in a queue rather than on a thread.
+ */
+public final class TextureFetcher {
+    private final TextureSource source;
+    private final int maxRequestsPerHost;
+
+    private final Map<String, CompletableFuture<BufferedImage>> pendingImages = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<JsonNode>> pendingJson = new ConcurrentHashMap<>();
+    /**
+     * Guarded by itself.
+     */
+    private final Map<String, Host> hosts = new HashMap<>();
+
+    public TextureFetcher(TextureSource source, int maxRequestsPerHost) {
+        this.source = source;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public CompletableFuture<BufferedImage> requestImage(String url, @Nullable CapeProvider provider) {
+        return coalesce(pendingImages, url, () -> source.requestImage(url, provider));
+    }
+
+    public CompletableFuture<JsonNode> requestJson(String url) {
+        return coalesce(pendingJson, url, () -> source.requestJson(url));
+    }
+
+    private <T> CompletableFuture<T> coalesce(Map<String, CompletableFuture<T>> pending, String url, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = pending.putIfAbsent(url, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        limit(hostOf(url), request).whenComplete((result, throwable) -> {
+            pending.remove(url, future);
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    private <T> CompletableFuture<T> limit(String host, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> fetch;
+            try {
+                fetch = request.get();
+            } catch (Throwable t) {
+                fetch = CompletableFuture.failedFuture(t);
+            }
+            fetch.whenComplete((result, throwable) -> {
+                release(host);
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(result);
+                }
+            });
+        };
+
+        boolean startNow;
+        synchronized (hosts) {
+            Host state = hosts.computeIfAbsent(host, key -> new Host());
+            startNow = state.active < maxRequestsPerHost;
+            if (startNow) {
+                state.active++;
+            } else {
+                state.waiting.add(start);
+            }
+        }
+
+        if (startNow) {
+            start.run();
+        }
+        return future;
+    }
+
+    private void release(String host) {
+        Runnable next;
+        synchronized (hosts) {
+            Host state = hosts.get(host);
+            // Hand our slot straight to the next request in line
+            next = state.waiting.poll();
+            if (next == null && --state.active == 0) {
+                hosts.remove(host);
+            }
+        }
+
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static final class Host {
+        private int active;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+    }
+}
@@ -28,6 +28,7 @@ package org.geysermc.geyser.text;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.translator.text.MessageTranslator;
 import org.geysermc.geyser.util.AssetUtils;
 import org.geysermc.geyser.util.FileUtils;
 import org.geysermc.geyser.util.WebUtils;
@@ -35,15 +36,23 @@ import org.geysermc.geyser.util.WebUtils;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MinecraftLocale {
 
     public static final Map<String, Map<String, String>> LOCALE_MAPPINGS = new HashMap<>();
 
+    /**
+     * Compiled message formats of each loaded locale, keyed by translation key. Filled as keys are first translated
+     * and replaced whenever the locale is (re)loaded.
+     */
+    private static final Map<String, Map<String, MessageFormat>> MESSAGE_FORMATS = new ConcurrentHashMap<>();
+
     static {
         // Create the locales folder
         File localesFolder = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("locales").toFile();
@@ -177,6 +186,9 @@ public class MinecraftLocale {
 
             // Insert the locale into the mappings
             LOCALE_MAPPINGS.put(bedrockLocale, langMap);
+            // Invalidate any formats compiled from a previous load of this locale
+            MESSAGE_FORMATS.put(bedrockLocale, new ConcurrentHashMap<>());
+            MessageTranslator.invalidateRenderedMessages();
 
             try {
                 localeStream.close();
@@ -226,6 +238,31 @@ public class MinecraftLocale {
         return null;
     }
 
+    /**
+     * Get the compiled {@link MessageFormat} of the given language string in the given locale, or returns null.
+     *
+     * @param messageText Language string to translate
+     * @param locale Locale to translate to
+     * @return The compiled format or null if the string was not found in the given locale
+     */
+    public static @Nullable MessageFormat getMessageFormatIfPresent(String messageText, String locale) {
+        String lowercaseLocale = locale.toLowerCase(Locale.ROOT);
+        Map<String, String> localeStrings = LOCALE_MAPPINGS.get(lowercaseLocale);
+        if (localeStrings == null) {
+            return null;
+        }
+        String localeString = localeStrings.get(messageText);
+        if (localeString == null) {
+            return null;
+        }
+
+        Map<String, MessageFormat> formats = MESSAGE_FORMATS.get(lowercaseLocale);
+        if (formats == null) {
+            return MinecraftTranslationRegistry.toMessageFormat(localeString);
+        }
+        return formats.computeIfAbsent(messageText, key -> MinecraftTranslationRegistry.toMessageFormat(localeString));
+    }
+
     /**
      * Convert a byte array into a hex string
      *
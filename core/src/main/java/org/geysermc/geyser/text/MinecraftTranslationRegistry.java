@@ -31,16 +31,12 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.text.MessageFormat;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * This class is used for mapping a translation key with the already loaded Java locale data
  * Used in MessageTranslator.java as part of the KyoriPowered/Adventure library
  */
 public class MinecraftTranslationRegistry extends TranslatableComponentRenderer<String> {
-    private final Pattern stringReplacement = Pattern.compile("%s");
-    private final Pattern positionalStringReplacement = Pattern.compile("%([0-9]+)\\$s");
 
     // Exists to maintain compatibility with Velocity's older Adventure version
     @Override
@@ -50,41 +46,66 @@ public class MinecraftTranslationRegistry extends TranslatableComponentRenderer<
 
     @Override
     protected @Nullable MessageFormat translate(@NonNull String key, @Nullable String fallback, @NonNull String locale) {
-        // Get the locale string
-        String localeString = MinecraftLocale.getLocaleStringIfPresent(key, locale);
-        if (localeString == null) {
-            if (fallback != null) {
-                // Fallback strings will still have their params inserted
-                localeString = fallback;
-            } else {
-                // The original translation will be translated
-                // Can be tested with 1.19.4: {"translate":"%s","with":[{"text":"weeeeeee"}]}
-                localeString = key;
-            }
+        // Locale strings are compiled once per locale and cached until the locale is reloaded
+        MessageFormat format = MinecraftLocale.getMessageFormatIfPresent(key, locale);
+        if (format != null) {
+            return format;
         }
 
-        // Replace the `%s` with numbered inserts `{0}`
-        Pattern p = stringReplacement;
-        Matcher m = p.matcher(localeString);
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-        while (m.find()) {
-            m.appendReplacement(sb, "{" + (i++) + "}");
+        if (fallback != null) {
+            // Fallback strings will still have their params inserted
+            return toMessageFormat(fallback);
         }
-        m.appendTail(sb);
+        // The original translation will be translated
+        // Can be tested with 1.19.4: {"translate":"%s","with":[{"text":"weeeeeee"}]}
+        return toMessageFormat(key);
+    }
+
+    /**
+     * Converts a Java locale string into a {@link MessageFormat}, replacing `%s` with sequential inserts `{0}`,
+     * `%x$s` with numbered inserts `{x - 1}` and escaping single quotes.
+     *
+     * @param localeString the Java locale string
+     * @return a compiled message format for the locale string
+     */
+    public static MessageFormat toMessageFormat(String localeString) {
+        int length = localeString.length();
+        StringBuilder sb = new StringBuilder(length + 8);
+        int sequentialIndex = 0;
+        int i = 0;
+        while (i < length) {
+            char c = localeString.charAt(i);
+            if (c == '%' && i + 1 < length) {
+                char next = localeString.charAt(i + 1);
+                if (next == 's') {
+                    sb.append('{').append(sequentialIndex++).append('}');
+                    i += 2;
+                    continue;
+                }
+
+                // Check for `%x$s`
+                int digitsEnd = i + 1;
+                while (digitsEnd < length && localeString.charAt(digitsEnd) >= '0' && localeString.charAt(digitsEnd) <= '9') {
+                    digitsEnd++;
+                }
+                if (digitsEnd > i + 1 && digitsEnd + 1 < length && localeString.charAt(digitsEnd) == '$' && localeString.charAt(digitsEnd + 1) == 's') {
+                    int position = Integer.parseInt(localeString, i + 1, digitsEnd, 10) - 1;
+                    sb.append('{').append(position).append('}');
+                    i = digitsEnd + 2;
+                    continue;
+                }
+            }
 
-        // Replace the `%x$s` with numbered inserts `{x}`
-        p = positionalStringReplacement;
-        m = p.matcher(sb.toString());
-        sb = new StringBuilder();
-        while (m.find()) {
-            i = Integer.parseInt(m.group(1)) - 1;
-            m.appendReplacement(sb, "{" + i + "}");
+            if (c == '\'') {
+                // replace single quote instances which get lost in MessageFormat otherwise
+                sb.append("''");
+            } else {
+                sb.append(c);
+            }
+            i++;
         }
-        m.appendTail(sb);
 
-        // replace single quote instances which get lost in MessageFormat otherwise
         // Locale shouldn't need to be specific - dates for example will not be handled
-        return new MessageFormat(sb.toString().replace("'", "''"), Locale.ROOT);
+        return new MessageFormat(sb.toString(), Locale.ROOT);
     }
 }
@@ -40,6 +40,15 @@ public class BlockCollision {
     @Getter
     protected final BoundingBox[] boundingBoxes;
 
+    /**
+     * The bounding boxes of this collision flattened into a primitive array, {@link #FLAT_BOX_STRIDE} doubles per box.
+     * Each box is stored as its middle, its size and its min and max corners, all relative to the block position, so
+     * collision sweeps can run without touching {@link BoundingBox} objects.
+     */
+    @Getter
+    @EqualsAndHashCode.Exclude
+    protected final double[] flatBoundingBoxes;
+
     /**
      * This is used for the step up logic.
      * Usually, the player can only step up a block if they are on the same Y level as its bottom face or higher
@@ -56,8 +65,37 @@ public class BlockCollision {
      */
     protected final double pushAwayTolerance = CollisionManager.COLLISION_TOLERANCE * 1.1;
 
+    /**
+     * The amount of doubles used by each box in {@link #flatBoundingBoxes}:
+     * middle X/Y/Z, size X/Y/Z, min X/Y/Z and max X/Y/Z.
+     */
+    public static final int FLAT_BOX_STRIDE = 12;
+
     protected BlockCollision(BoundingBox[] boxes) {
         this.boundingBoxes = boxes;
+        this.flatBoundingBoxes = flatten(boxes);
+    }
+
+    private static double[] flatten(BoundingBox[] boxes) {
+        double[] flat = new double[boxes.length * FLAT_BOX_STRIDE];
+        for (int i = 0; i < boxes.length; i++) {
+            BoundingBox box = boxes[i];
+            int offset = i * FLAT_BOX_STRIDE;
+            flat[offset] = box.getMiddleX();
+            flat[offset + 1] = box.getMiddleY();
+            flat[offset + 2] = box.getMiddleZ();
+            flat[offset + 3] = box.getSizeX();
+            flat[offset + 4] = box.getSizeY();
+            flat[offset + 5] = box.getSizeZ();
+            // Computed the same way as BoundingBox#getMin and BoundingBox#getMax so results stay identical
+            flat[offset + 6] = box.getMiddleX() - box.getSizeX() / 2;
+            flat[offset + 7] = box.getMiddleY() - box.getSizeY() / 2;
+            flat[offset + 8] = box.getMiddleZ() - box.getSizeZ() / 2;
+            flat[offset + 9] = box.getMiddleX() + box.getSizeX() / 2;
+            flat[offset + 10] = box.getMiddleY() + box.getSizeY() / 2;
+            flat[offset + 11] = box.getMiddleZ() + box.getSizeZ() / 2;
+        }
+        return flat;
     }
 
     /**
@@ -155,6 +155,8 @@ public abstract class InventoryTranslator {
     }
 
     public final void translateRequests(GeyserSession session, Inventory inventory, List<ItemStackRequest> requests) {
+        // The client changes its own view of the inventory when making requests
+        inventory.setSentItems(null);
         boolean refresh = false;
         ItemStackResponsePacket responsePacket = new ItemStackResponsePacket();
         for (ItemStackRequest request : requests) {
@@ -41,6 +41,7 @@ public class BedrockMapInfoRequestTranslator extends PacketTranslator<MapInfoReq
         long mapId = packet.getUniqueMapId();
 
         ClientboundMapItemDataPacket mapPacket = session.getStoredMaps().remove(mapId);
+        session.getStoredMapImages().remove(mapId);
         if (mapPacket != null) {
             // Delay the packet 100ms to prevent the client from ignoring the packet
             session.scheduleInEventLoop(() -> session.sendUpstreamPacket(mapPacket),
@@ -113,9 +113,10 @@ public class JavaPlayerInfoUpdateTranslator extends PacketTranslator<Clientbound
                 }
 
                 if (entry.isListed()) {
-                    PlayerListPacket.Entry playerListEntry = SkinManager.buildCachedEntry(session, entity);
+                    PlayerListPacket.Entry playerListEntry = SkinManager.buildTabListEntry(session, entity);
                     toAdd.add(playerListEntry);
                 } else {
+                    session.getTabListSkinCache().remove(entity.getUuid());
                     toRemove.add(new PlayerListPacket.Entry(entity.getTabListUuid()));
                 }
             }
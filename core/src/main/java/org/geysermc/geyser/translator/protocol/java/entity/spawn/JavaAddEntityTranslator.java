@@ -84,6 +84,8 @@ public class JavaAddEntityTranslator extends PacketTranslator<ClientboundAddEnti
             session.getEntityCache().cacheEntity(entity);
 
             entity.sendPlayer();
+            // In view now, so there is no need to wait for a deferred tab list skin
+            session.getTabListSkinCache().remove(entity.getUuid());
             SkinManager.requestAndHandleSkinAndCape(entity, session, null);
             return;
         }
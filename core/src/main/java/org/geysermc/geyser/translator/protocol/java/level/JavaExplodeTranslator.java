@@ -25,7 +25,10 @@
 
 package org.geysermc.geyser.translator.protocol.java.level;
 
+import com.github.steveice10.mc.protocol.data.game.level.block.BlockChangeEntry;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.level.ClientboundExplodePacket;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import org.cloudburstmc.math.vector.Vector3f;
 import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.nbt.NbtMap;
@@ -41,11 +44,38 @@ import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
 import org.geysermc.geyser.util.ChunkUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Translator(packet = ClientboundExplodePacket.class)
 public class JavaExplodeTranslator extends PacketTranslator<ClientboundExplodePacket> {
 
+    /**
+     * Particle position keys are precomputed for explosions up to this size, as building them adds up for large ones.
+     */
+    private static final int PRECOMPUTED_POSITION_KEYS = 512;
+    private static final String[] POSITION_KEYS = new String[PRECOMPUTED_POSITION_KEYS * 3];
+
+    static {
+        for (int i = 0; i < PRECOMPUTED_POSITION_KEYS; i++) {
+            POSITION_KEYS[i * 3] = "pos" + i + "x";
+            POSITION_KEYS[i * 3 + 1] = "pos" + i + "y";
+            POSITION_KEYS[i * 3 + 2] = "pos" + i + "z";
+        }
+    }
+
     @Override
     public void translate(GeyserSession session, ClientboundExplodePacket packet) {
+        List<Vector3i> exploded = new ArrayList<>(packet.getExploded().size());
+        for (Vector3i position : packet.getExploded()) {
+            exploded.add(Vector3i.from(packet.getX() + position.getX(), packet.getY() + position.getY(), packet.getZ() + position.getZ()));
+        }
+
+        for (BlockChangeEntry[] section : groupBySection(exploded)) {
+            Vector3i first = section[0].getPosition();
+            ChunkUtils.updateSection(session, first.getX() >> 4, first.getY() >> 4, first.getZ() >> 4, section);
+        }
+
         LevelEventGenericPacket levelEventPacket = new LevelEventGenericPacket();
         levelEventPacket.setType(LevelEvent.PARTICLE_BLOCK_EXPLOSION);
         NbtMapBuilder builder = NbtMap.builder();
@@ -53,16 +83,7 @@ public class JavaExplodeTranslator extends PacketTranslator<ClientboundExplodePa
         builder.putFloat("originY", (float) packet.getY());
         builder.putFloat("originZ", (float) packet.getZ());
         builder.putFloat("radius", packet.getRadius());
-        builder.putInt("size", packet.getExploded().size());
-        int i = 0;
-        for (Vector3i position : packet.getExploded()) {
-            Vector3i pos = Vector3i.from(packet.getX() + position.getX(), packet.getY() + position.getY(), packet.getZ() + position.getZ());
-            ChunkUtils.updateBlock(session, BlockStateValues.JAVA_AIR_ID, pos);
-            builder.putFloat("pos" + i + "x", pos.getX());
-            builder.putFloat("pos" + i + "y", pos.getY());
-            builder.putFloat("pos" + i + "z", pos.getZ());
-            i++;
-        }
+        writePositions(builder, exploded);
         levelEventPacket.setTag(builder.build());
         session.sendUpstreamPacket(levelEventPacket);
 
@@ -83,4 +104,39 @@ public class JavaExplodeTranslator extends PacketTranslator<ClientboundExplodePa
             session.sendUpstreamPacket(motionPacket);
         }
     }
+
+    /**
+     * Turns exploded positions into air block changes, grouped by the section they are in. Sections keep the order in
+     * which they are first touched.
+     */
+    static List<BlockChangeEntry[]> groupBySection(List<Vector3i> positions) {
+        Long2ObjectMap<List<BlockChangeEntry>> sections = new Long2ObjectLinkedOpenHashMap<>();
+        for (Vector3i position : positions) {
+            long key = ((long) (position.getX() >> 4) & 0x3FFFFF) << 42 | ((long) (position.getZ() >> 4) & 0x3FFFFF) << 20
+                    | ((long) (position.getY() >> 4) & 0xFFFFF);
+            sections.computeIfAbsent(key, k -> new ArrayList<>()).add(new BlockChangeEntry(position, BlockStateValues.JAVA_AIR_ID));
+        }
+
+        List<BlockChangeEntry[]> result = new ArrayList<>(sections.size());
+        for (List<BlockChangeEntry> entries : sections.values()) {
+            result.add(entries.toArray(new BlockChangeEntry[0]));
+        }
+        return result;
+    }
+
+    static void writePositions(NbtMapBuilder builder, List<Vector3i> positions) {
+        builder.putInt("size", positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            Vector3i pos = positions.get(i);
+            if (i < PRECOMPUTED_POSITION_KEYS) {
+                builder.putFloat(POSITION_KEYS[i * 3], pos.getX());
+                builder.putFloat(POSITION_KEYS[i * 3 + 1], pos.getY());
+                builder.putFloat(POSITION_KEYS[i * 3 + 2], pos.getZ());
+            } else {
+                builder.putFloat("pos" + i + "x", pos.getX());
+                builder.putFloat("pos" + i + "y", pos.getY());
+                builder.putFloat("pos" + i + "z", pos.getZ());
+            }
+        }
+    }
 }
@@ -33,6 +33,7 @@ import org.cloudburstmc.protocol.bedrock.data.MapDecoration;
 import org.cloudburstmc.protocol.bedrock.data.MapTrackedObject;
 import org.geysermc.geyser.level.BedrockMapIcon;
 import org.geysermc.geyser.level.MapColor;
+import org.geysermc.geyser.level.MapImageStore;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
@@ -45,6 +46,7 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
     public void translate(GeyserSession session, ClientboundMapItemDataPacket packet) {
         org.cloudburstmc.protocol.bedrock.packet.ClientboundMapItemDataPacket mapItemDataPacket = new org.cloudburstmc.protocol.bedrock.packet.ClientboundMapItemDataPacket();
         boolean shouldStore = false;
+        MapImageStore.MapImage image = null;
 
         mapItemDataPacket.setUniqueMapId(packet.getMapId());
         mapItemDataPacket.setDimensionId(DimensionUtils.javaToBedrock(session.getDimension()));
@@ -62,19 +64,24 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
             mapItemDataPacket.setHeight(data.getRows());
 
             // We have a full map image, this usually only happens on spawn for the initial image
-            if (mapItemDataPacket.getWidth() == 128 && mapItemDataPacket.getHeight() == 128) {
+            if (mapItemDataPacket.getWidth() == MapImageStore.MAP_SIZE && mapItemDataPacket.getHeight() == MapImageStore.MAP_SIZE) {
                 shouldStore = true;
-            }
-
-            // Every int entry is an ARGB color
-            int[] colors = new int[data.getData().length];
+                // Identical images are converted once and the colors shared between all sessions
+                image = MapImageStore.getFullImage(packet.getMapId(), data.getData());
+                mapItemDataPacket.setColors(image.colors());
+            } else {
+                // Every int entry is an ARGB color
+                mapItemDataPacket.setColors(MapColor.toARGB(data.getData()));
 
-            int idx = 0;
-            for (byte colorId : data.getData()) {
-                colors[idx++] = MapColor.fromId(colorId & 0xFF).getARGB();
+                // Keep a full image that the client hasn't requested yet up to date
+                MapImageStore.MapImage storedImage = session.getStoredMapImages().get(packet.getMapId());
+                org.cloudburstmc.protocol.bedrock.packet.ClientboundMapItemDataPacket storedPacket = session.getStoredMaps().get(packet.getMapId());
+                if (storedImage != null && storedPacket != null && MapImageStore.isValidPatch(data)) {
+                    MapImageStore.MapImage patched = MapImageStore.patch(packet.getMapId(), storedImage, data);
+                    storedPacket.setColors(patched.colors());
+                    session.getStoredMapImages().put(packet.getMapId(), patched);
+                }
             }
-
-            mapItemDataPacket.setColors(colors);
         }
 
         // Bedrock needs an entity id to display an icon
@@ -90,6 +97,7 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
         // Store the map to send when the client requests it, as bedrock expects the data after a MapInfoRequestPacket
         if (shouldStore) {
             session.getStoredMaps().put(mapItemDataPacket.getUniqueMapId(), mapItemDataPacket);
+            session.getStoredMapImages().put(mapItemDataPacket.getUniqueMapId(), image);
         }
 
         // Send anyway just in case
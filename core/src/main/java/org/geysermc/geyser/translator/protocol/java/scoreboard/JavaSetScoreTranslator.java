@@ -29,7 +29,6 @@ import com.github.steveice10.mc.protocol.data.game.scoreboard.ScoreboardAction;
 import com.github.steveice10.mc.protocol.data.game.scoreboard.ScoreboardPosition;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.scoreboard.ClientboundSetScorePacket;
 import org.cloudburstmc.protocol.bedrock.data.entity.EntityDataTypes;
-import org.cloudburstmc.protocol.bedrock.packet.SetEntityDataPacket;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.GeyserLogger;
 import org.geysermc.geyser.entity.type.player.PlayerEntity;
@@ -122,10 +121,7 @@ public class JavaSetScoreTranslator extends PacketTranslator<ClientboundSetScore
 
         // Of note: unlike Bedrock, if there is an objective in the below name slot, everyone has a display
         entity.getDirtyMetadata().put(EntityDataTypes.SCORE, displayString);
-        SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
-        entityDataPacket.setRuntimeEntityId(entity.getGeyserId());
-        entityDataPacket.getMetadata().put(EntityDataTypes.SCORE, displayString);
-        session.sendUpstreamPacket(entityDataPacket);
+        entity.updateBedrockMetadata();
     }
 
     private PlayerEntity getPlayerEntity(GeyserSession session, String username) {
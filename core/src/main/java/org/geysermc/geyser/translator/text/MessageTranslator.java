@@ -27,6 +27,9 @@ package org.geysermc.geyser.translator.text;
 
 import com.github.steveice10.mc.protocol.data.DefaultComponentSerializer;
 import com.github.steveice10.mc.protocol.data.game.scoreboard.TeamColor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ScoreComponent;
 import net.kyori.adventure.text.TranslatableComponent;
@@ -43,6 +46,7 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.*;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 public class MessageTranslator {
     // These are used for handling the translations of the messages
@@ -64,6 +68,17 @@ public class MessageTranslator {
     // Reset character
     private static final String RESET = BASE + "r";
 
+    /**
+     * Final Bedrock strings of recently converted messages, keyed structurally by component and locale. Broadcasts,
+     * boss bars and scoreboards send identical components to every session, so this turns one render per player into
+     * one render per locale.
+     */
+    private static final Cache<RenderedMessageKey, String> RENDERED_MESSAGES = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .expireAfterAccess(5, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+
     static {
         TEAM_COLORS.put(TeamColor.RESET, RESET);
 
@@ -148,43 +163,73 @@ public class MessageTranslator {
      * @return Parsed and formatted message for bedrock
      */
     public static String convertMessage(Component message, String locale) {
-        try {
-            // Translate any components that require it
-            message = RENDERER.render(message, locale);
-
-            String legacy = BEDROCK_SERIALIZER.serialize(message);
-
-            StringBuilder finalLegacy = new StringBuilder();
-            char[] legacyChars = legacy.toCharArray();
-            boolean lastFormatReset = false;
-            for (int i = 0; i < legacyChars.length; i++) {
-                char legacyChar = legacyChars[i];
-                if (legacyChar != ChatColor.ESCAPE || i >= legacyChars.length - 1) {
-                    // No special formatting for Bedrock needed
-                    // Or, we're at the end of the string
-                    finalLegacy.append(legacyChar);
-                    lastFormatReset = false;
-                    continue;
-                }
-
-                char next = legacyChars[++i];
-                if (BEDROCK_COLORS.indexOf(next) != -1) {
-                    // Append this color code, as well as a necessary reset code
-                    if (!lastFormatReset) {
-                        finalLegacy.append(RESET);
-                    }
-                }
-                finalLegacy.append(BASE).append(next);
-                lastFormatReset = next == 'r';
-            }
+        RenderedMessageKey key = new RenderedMessageKey(message, locale);
+        String rendered = RENDERED_MESSAGES.getIfPresent(key);
+        if (rendered != null) {
+            return rendered;
+        }
 
-            return finalLegacy.toString();
+        try {
+            rendered = renderMessage(message, locale);
         } catch (Exception e) {
             GeyserImpl.getInstance().getLogger().debug(GSON_SERIALIZER.serialize(message));
             GeyserImpl.getInstance().getLogger().error("Failed to parse message", e);
 
             return "";
         }
+        RENDERED_MESSAGES.put(key, rendered);
+        return rendered;
+    }
+
+    private static String renderMessage(Component message, String locale) {
+        // Translate any components that require it
+        message = RENDERER.render(message, locale);
+
+        String legacy = BEDROCK_SERIALIZER.serialize(message);
+
+        StringBuilder finalLegacy = new StringBuilder();
+        char[] legacyChars = legacy.toCharArray();
+        boolean lastFormatReset = false;
+        for (int i = 0; i < legacyChars.length; i++) {
+            char legacyChar = legacyChars[i];
+            if (legacyChar != ChatColor.ESCAPE || i >= legacyChars.length - 1) {
+                // No special formatting for Bedrock needed
+                // Or, we're at the end of the string
+                finalLegacy.append(legacyChar);
+                lastFormatReset = false;
+                continue;
+            }
+
+            char next = legacyChars[++i];
+            if (BEDROCK_COLORS.indexOf(next) != -1) {
+                // Append this color code, as well as a necessary reset code
+                if (!lastFormatReset) {
+                    finalLegacy.append(RESET);
+                }
+            }
+            finalLegacy.append(BASE).append(next);
+            lastFormatReset = next == 'r';
+        }
+
+        return finalLegacy.toString();
+    }
+
+    /**
+     * Clears all cached Bedrock strings, for example after a locale has been (re)loaded and translations may differ.
+     */
+    public static void invalidateRenderedMessages() {
+        RENDERED_MESSAGES.invalidateAll();
+    }
+
+    /**
+     * @return hit, miss and eviction statistics of the rendered message cache
+     */
+    public static CacheStats getRenderedMessageStats() {
+        return RENDERED_MESSAGES.stats();
+    }
+
+    public static long getRenderedMessageCacheSize() {
+        return RENDERED_MESSAGES.size();
     }
 
     public static String convertJsonMessage(String message, String locale) {
@@ -362,4 +407,11 @@ public class MessageTranslator {
     public static void init() {
         // no-op
     }
+
+    /**
+     * Components are immutable and compare structurally, so identical messages deserialized separately for each
+     * session still share an entry.
+     */
+    private record RenderedMessageKey(Component message, String locale) {
+    }
 }
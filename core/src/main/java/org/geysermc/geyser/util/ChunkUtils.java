@@ -25,18 +25,22 @@
 
 package org.geysermc.geyser.util;
 
+import com.github.steveice10.mc.protocol.data.game.level.block.BlockChangeEntry;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.IntLists;
 import lombok.experimental.UtilityClass;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.math.GenericMath;
 import org.cloudburstmc.math.vector.Vector2i;
 import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.protocol.bedrock.data.definitions.BlockDefinition;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
 import org.cloudburstmc.protocol.bedrock.packet.LevelChunkPacket;
 import org.cloudburstmc.protocol.bedrock.packet.NetworkChunkPublisherUpdatePacket;
 import org.cloudburstmc.protocol.bedrock.packet.UpdateBlockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.UpdateSubChunkBlocksPacket;
 import org.geysermc.geyser.entity.type.ItemFrameEntity;
 import org.geysermc.geyser.level.BedrockDimension;
 import org.geysermc.geyser.level.JavaDimension;
@@ -50,6 +54,9 @@ import org.geysermc.geyser.session.cache.SkullCache;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.translator.level.block.entity.BedrockOnlyBlockEntity;
 
+import java.util.Collections;
+import java.util.function.Consumer;
+
 import static org.geysermc.geyser.level.block.BlockStateValues.JAVA_AIR_ID;
 
 @UtilityClass
@@ -127,13 +134,81 @@ public class ChunkUtils {
      * Updates a block, but client-side only.
      */
     public static void updateBlockClientSide(GeyserSession session, int blockState, Vector3i position) {
+        if (updateBlockLayers(session, blockState, position, null)) {
+            updateBlockEntities(session, blockState, position);
+        }
+    }
+
+    /**
+     * Updates every block of one Java section. The chunk cache is written in one go before anything is sent, so
+     * neighbouring blocks can be read from it, and the client gets a single sub-chunk update holding both block layers
+     * instead of two packets per block.
+     */
+    public static void updateSection(GeyserSession session, int chunkX, int chunkY, int chunkZ, BlockChangeEntry[] entries) {
+        session.getChunkCache().updateSection(chunkX, chunkY, chunkZ, entries);
+
+        updateSection(chunkX, chunkY, chunkZ, entries, session::sendUpstreamPacket, new ClientBlockUpdater() {
+            @Override
+            public boolean updateLayers(int blockState, Vector3i position, @Nullable UpdateSubChunkBlocksPacket batch) {
+                return updateBlockLayers(session, blockState, position, batch);
+            }
+
+            @Override
+            public void updateBlockEntities(int blockState, Vector3i position) {
+                ChunkUtils.updateBlockEntities(session, blockState, position);
+            }
+        });
+    }
+
+    static void updateSection(int chunkX, int chunkY, int chunkZ, BlockChangeEntry[] entries, Consumer<BedrockPacket> sender, ClientBlockUpdater updater) {
+        UpdateSubChunkBlocksPacket packet = new UpdateSubChunkBlocksPacket();
+        packet.setChunkX(chunkX);
+        packet.setChunkY(chunkY);
+        packet.setChunkZ(chunkZ);
+        boolean[] updateBlockEntities = new boolean[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            updateBlockEntities[i] = updater.updateLayers(entries[i].getBlock(), entries[i].getPosition(), packet);
+        }
+
+        if (!packet.getStandardBlocks().isEmpty() || !packet.getExtraBlocks().isEmpty()) {
+            sender.accept(packet);
+        }
+
+        // Block entities are only applied by the client if their block is already there
+        for (int i = 0; i < entries.length; i++) {
+            if (updateBlockEntities[i]) {
+                updater.updateBlockEntities(entries[i].getBlock(), entries[i].getPosition());
+            }
+        }
+    }
+
+    /**
+     * A client-side block update, split so a section update can send every block before any block entity.
+     */
+    interface ClientBlockUpdater {
+        /**
+         * @param batch if not null, the sub-chunk update that block changes within its sub-chunk are added to instead
+         *              of being sent individually
+         * @return if {@link #updateBlockEntities(int, Vector3i)} should be called for this block
+         */
+        boolean updateLayers(int blockState, Vector3i position, @Nullable UpdateSubChunkBlocksPacket batch);
+
+        void updateBlockEntities(int blockState, Vector3i position);
+    }
+
+    /**
+     * @param batch if not null, the sub-chunk update that block changes within its sub-chunk are added to instead of
+     *              being sent individually
+     * @return false if an item frame took the place of the block, and block entities don't need to be updated
+     */
+    private static boolean updateBlockLayers(GeyserSession session, int blockState, Vector3i position, @Nullable UpdateSubChunkBlocksPacket batch) {
         // Checks for item frames so they aren't tripped up and removed
         ItemFrameEntity itemFrameEntity = ItemFrameEntity.getItemFrameEntity(session, position);
         if (itemFrameEntity != null) {
             if (blockState == JAVA_AIR_ID) { // Item frame is still present and no block overrides that; refresh it
                 itemFrameEntity.updateBlock(true);
                 // Still update the chunk cache with the new block if updateBlock is called
-                return;
+                return false;
             }
             // Otherwise, let's still store our reference to the item frame, but let the new block take precedence for now
         }
@@ -155,55 +230,35 @@ public class ChunkUtils {
         // Prevent moving_piston from being placed
         // It's used for extending piston heads, but it isn't needed on Bedrock and causes pistons to flicker
         if (!BlockStateValues.isMovingPiston(blockState)) {
-            UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
-            updateBlockPacket.setDataLayer(0);
-            updateBlockPacket.setBlockPosition(position);
-            updateBlockPacket.setDefinition(definition);
-            updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NEIGHBORS);
-            updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NETWORK);
-            session.sendUpstreamPacket(updateBlockPacket);
-
-            UpdateBlockPacket waterPacket = new UpdateBlockPacket();
-            waterPacket.setDataLayer(1);
-            waterPacket.setBlockPosition(position);
+            sendBlockLayer(session, batch, position, 0, definition, UpdateBlockPacket.Flag.NEIGHBORS, UpdateBlockPacket.Flag.NETWORK);
+
+            BlockDefinition waterDefinition;
             if (BlockRegistries.WATERLOGGED.get().get(blockState)) {
-                waterPacket.setDefinition(session.getBlockMappings().getBedrockWater());
+                waterDefinition = session.getBlockMappings().getBedrockWater();
             } else {
-                waterPacket.setDefinition(session.getBlockMappings().getBedrockAir());
+                waterDefinition = session.getBlockMappings().getBedrockAir();
             }
-            session.sendUpstreamPacket(waterPacket);
+            sendBlockLayer(session, batch, position, 1, waterDefinition);
         }
 
         // Extended collision boxes for custom blocks
         if (!session.getBlockMappings().getExtendedCollisionBoxes().isEmpty()) {
-            int aboveBlock = session.getGeyser().getWorldManager().getBlockAt(session, position.getX(), position.getY() + 1, position.getZ());
+            int aboveBlock = getNeighbourBlock(session, position.getX(), position.getY() + 1, position.getZ(), batch != null);
             BlockDefinition aboveBedrockExtendedCollisionDefinition = session.getBlockMappings().getExtendedCollisionBoxes().get(blockState);
-            int belowBlock = session.getGeyser().getWorldManager().getBlockAt(session, position.getX(), position.getY() - 1, position.getZ());
+            int belowBlock = getNeighbourBlock(session, position.getX(), position.getY() - 1, position.getZ(), batch != null);
             BlockDefinition belowBedrockExtendedCollisionDefinition = session.getBlockMappings().getExtendedCollisionBoxes().get(belowBlock);
             if (belowBedrockExtendedCollisionDefinition != null && blockState == BlockStateValues.JAVA_AIR_ID) {
-                UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
-                updateBlockPacket.setDataLayer(0);
-                updateBlockPacket.setBlockPosition(position);
-                updateBlockPacket.setDefinition(belowBedrockExtendedCollisionDefinition);
-                updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NETWORK);
-                session.sendUpstreamPacket(updateBlockPacket);
+                sendBlockLayer(session, batch, position, 0, belowBedrockExtendedCollisionDefinition, UpdateBlockPacket.Flag.NETWORK);
             } else if (aboveBedrockExtendedCollisionDefinition != null && aboveBlock == BlockStateValues.JAVA_AIR_ID) {
-                UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
-                updateBlockPacket.setDataLayer(0);
-                updateBlockPacket.setBlockPosition(position.add(0, 1, 0));
-                updateBlockPacket.setDefinition(aboveBedrockExtendedCollisionDefinition);
-                updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NETWORK);
-                session.sendUpstreamPacket(updateBlockPacket);
+                sendBlockLayer(session, batch, position.add(0, 1, 0), 0, aboveBedrockExtendedCollisionDefinition, UpdateBlockPacket.Flag.NETWORK);
             } else if (aboveBlock == BlockStateValues.JAVA_AIR_ID) {
-                UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
-                updateBlockPacket.setDataLayer(0);
-                updateBlockPacket.setBlockPosition(position.add(0, 1, 0));
-                updateBlockPacket.setDefinition(session.getBlockMappings().getBedrockAir());
-                updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NETWORK);
-                session.sendUpstreamPacket(updateBlockPacket);
+                sendBlockLayer(session, batch, position.add(0, 1, 0), 0, session.getBlockMappings().getBedrockAir(), UpdateBlockPacket.Flag.NETWORK);
             }
         }
+        return true;
+    }
 
+    private static void updateBlockEntities(GeyserSession session, int blockState, Vector3i position) {
         BlockStateValues.getLecternBookStates().handleBlockChange(session, blockState, position);
 
         // Iterates through all Bedrock-only block entity translators and determines if a manual block entity packet
@@ -217,6 +272,47 @@ public class ChunkUtils {
         }
     }
 
+    /**
+     * Sends one layer of a block change, or adds it to the batch if the position lies within the batch's sub-chunk.
+     */
+    private static void sendBlockLayer(GeyserSession session, @Nullable UpdateSubChunkBlocksPacket batch, Vector3i position,
+                                       int layer, BlockDefinition definition, UpdateBlockPacket.Flag... flags) {
+        sendBlockLayer(session::sendUpstreamPacket, batch, position, layer, definition, flags);
+    }
+
+    static void sendBlockLayer(Consumer<BedrockPacket> sender, @Nullable UpdateSubChunkBlocksPacket batch, Vector3i position,
+                               int layer, BlockDefinition definition, UpdateBlockPacket.Flag... flags) {
+        if (batch != null && position.getX() >> 4 == batch.getChunkX() && position.getY() >> 4 == batch.getChunkY()
+                && position.getZ() >> 4 == batch.getChunkZ()) {
+            int updateFlags = 0;
+            for (UpdateBlockPacket.Flag flag : flags) {
+                updateFlags |= 1 << flag.ordinal();
+            }
+            org.cloudburstmc.protocol.bedrock.data.BlockChangeEntry entry = new org.cloudburstmc.protocol.bedrock.data.BlockChangeEntry(
+                    position, definition, updateFlags, 0, org.cloudburstmc.protocol.bedrock.data.BlockChangeEntry.MessageType.NONE);
+            (layer == 0 ? batch.getStandardBlocks() : batch.getExtraBlocks()).add(entry);
+            return;
+        }
+
+        UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
+        updateBlockPacket.setDataLayer(layer);
+        updateBlockPacket.setBlockPosition(position);
+        updateBlockPacket.setDefinition(definition);
+        Collections.addAll(updateBlockPacket.getFlags(), flags);
+        sender.accept(updateBlockPacket);
+    }
+
+    /**
+     * When batching a section, the chunk cache already holds the new blocks, so it can be read from directly instead
+     * of asking the world manager for each neighbour.
+     */
+    private static int getNeighbourBlock(GeyserSession session, int x, int y, int z, boolean batched) {
+        if (batched && session.getChunkCache().isCache()) {
+            return session.getChunkCache().getBlockAt(x, y, z);
+        }
+        return session.getGeyser().getWorldManager().getBlockAt(session, x, y, z);
+    }
+
     public static void sendEmptyChunk(GeyserSession session, int chunkX, int chunkZ, boolean forceUpdate) {
         BedrockDimension bedrockDimension = session.getChunkCache().getBedrockDimension();
         int bedrockSubChunkCount = bedrockDimension.height() >> 4;
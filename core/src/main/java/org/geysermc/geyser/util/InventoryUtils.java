@@ -96,6 +96,7 @@ public class InventoryUtils {
                 session.scheduleInEventLoop(() -> {
                     Inventory openInv = session.getOpenInventory();
                     if (openInv != null && openInv.getJavaId() == inventory.getJavaId()) {
+                        inventory.setSentItems(null);
                         translator.openInventory(session, inventory);
                         translator.updateInventory(session, inventory);
                         openInv.setDisplayed(true);
@@ -105,6 +106,8 @@ public class InventoryUtils {
                     }
                 }, 200, TimeUnit.MILLISECONDS);
             } else {
+                // The client starts off with an empty container
+                inventory.setSentItems(null);
                 translator.openInventory(session, inventory);
                 translator.updateInventory(session, inventory);
                 inventory.setDisplayed(true);
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-bucket histogram of durations, cheap enough to record from any thread.
+ */
+public class LatencyHistogram {
+    private static final long[] DEFAULT_BOUNDS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final long[] boundsNanos;
+    /**
+     * One bucket per bound, plus one for everything above the last bound.
+     */
+    private final LongAdder[] buckets;
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        this.boundsNanos = new long[DEFAULT_BOUNDS_MILLIS.length];
+        for (int i = 0; i < DEFAULT_BOUNDS_MILLIS.length; i++) {
+            this.boundsNanos[i] = TimeUnit.MILLISECONDS.toNanos(DEFAULT_BOUNDS_MILLIS[i]);
+        }
+        this.buckets = new LongAdder[DEFAULT_BOUNDS_MILLIS.length + 1];
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < boundsNanos.length && nanos > boundsNanos[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        totalNanos.add(nanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        long count = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        double meanMillis = count == 0 ? 0 : totalNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+        return new Snapshot(count, meanMillis, DEFAULT_BOUNDS_MILLIS.clone(), counts);
+    }
+
+    /**
+     * @param boundsMillis the inclusive upper bound of each bucket; {@code counts} has one more entry for everything above
+     */
+    public record Snapshot(long count, double meanMillis, long[] boundsMillis, long[] counts) {
+    }
+}
@@ -29,6 +29,8 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.steveice10.mc.auth.service.MsaAuthenticationService;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.cloudburstmc.protocol.bedrock.packet.LoginPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ServerToClientHandshakePacket;
 import org.cloudburstmc.protocol.bedrock.util.ChainValidationResult;
@@ -50,6 +52,12 @@ import javax.crypto.SecretKey;
 import java.security.KeyPair;
 import java.security.PublicKey;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 
 public class LoginEncryptionUtils {
@@ -57,27 +65,57 @@ public class LoginEncryptionUtils {
 
     private static boolean HAS_SENT_ENCRYPTION_MESSAGE = false;
 
-    public static void encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket) {
-        encryptConnectionWithCert(session, loginPacket.getExtra(), loginPacket.getChain());
-    }
+    /**
+     * Chain validation, client data verification and the ECDH handshake are expensive enough that a wave of logins
+     * would delay every other connection sharing the network threads, so they run on their own bounded pool.
+     */
+    private static final int LOGIN_THREADS = Integer.getInteger("Geyser.LoginThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    /**
+     * Logins waiting for a login thread. Beyond this, clients are told the server is full rather than left to time out.
+     */
+    private static final int MAX_PENDING_LOGINS = Integer.getInteger("Geyser.MaxPendingLogins", 128);
+
+    private static ThreadPoolExecutor LOGIN_EXECUTOR;
+    private static final LatencyHistogram LOGIN_QUEUE_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram LOGIN_CRYPTO_LATENCY = new LatencyHistogram();
+    private static final LongAdder REJECTED_LOGINS = new LongAdder();
 
-    private static void encryptConnectionWithCert(GeyserSession session, String clientData, List<String> certChainData) {
+    /**
+     * Validates the login and starts encryption off the network thread.
+     *
+     * @param onComplete run on the session's network thread once encryption has started, if the session is still open
+     */
+    public static void encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket, Runnable onComplete) {
+        String clientData = loginPacket.getExtra();
+        List<String> certChainData = loginPacket.getChain();
+        EventLoop eventLoop = session.getUpstream().getSession().getPeer().getChannel().eventLoop();
+        long queuedAt = System.nanoTime();
         try {
-            GeyserImpl geyser = session.getGeyser();
+            getLoginExecutor().execute(() -> {
+                long startedAt = System.nanoTime();
+                LOGIN_QUEUE_LATENCY.record(startedAt - queuedAt);
+
+                LoginResult result = verifyLogin(session.getGeyser(), clientData, certChainData);
+                LOGIN_CRYPTO_LATENCY.record(System.nanoTime() - startedAt);
+                eventLoop.execute(() -> completeLogin(session, certChainData, result, onComplete));
+            });
+        } catch (RejectedExecutionException e) {
+            REJECTED_LOGINS.increment();
+            session.getGeyser().getLogger().debug("Rejected login from " + session.getUpstream().getAddress() + " as too many logins are pending");
+            session.disconnect("disconnectionScreen.serverFull");
+        }
+    }
 
+    private static LoginResult verifyLogin(GeyserImpl geyser, String clientData, List<String> certChainData) {
+        try {
             ChainValidationResult result = EncryptionUtils.validateChain(certChainData);
 
             geyser.getLogger().debug(String.format("Is player data signed? %s", result.signed()));
 
-            if (!result.signed() && !session.getGeyser().getConfig().isEnableProxyConnections()) {
-                session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account"));
-                return;
+            if (!result.signed() && !geyser.getConfig().isEnableProxyConnections()) {
+                return new LoginResult(result, null, null, null, null);
             }
 
-            IdentityData extraData = result.identityClaims().extraData;
-            session.setAuthenticationData(new AuthData(extraData.displayName, extraData.identity, extraData.xuid));
-            session.setCertChainData(certChainData);
-
             PublicKey identityPublicKey = result.identityClaims().parsedIdentityPublicKey();
 
             byte[] clientDataPayload = EncryptionUtils.verifyClientData(clientData, identityPublicKey);
@@ -88,10 +126,16 @@ public class LoginEncryptionUtils {
             JsonNode clientDataJson = JSON_MAPPER.readTree(clientDataPayload);
             BedrockClientData data = JSON_MAPPER.convertValue(clientDataJson, BedrockClientData.class);
             data.setOriginalString(clientData);
-            session.setClientData(data);
 
+            ServerToClientHandshakePacket handshake = null;
+            SecretKey encryptionKey = null;
             try {
-                startEncryptionHandshake(session, identityPublicKey);
+                KeyPair serverKeyPair = EncryptionUtils.createKeyPair();
+                byte[] token = EncryptionUtils.generateRandomToken();
+
+                handshake = new ServerToClientHandshakePacket();
+                handshake.setJwt(EncryptionUtils.createHandshakeJwt(serverKeyPair, token));
+                encryptionKey = EncryptionUtils.getSecretKey(serverKeyPair.getPrivate(), identityPublicKey, token);
             } catch (Throwable e) {
                 // An error can be thrown on older Java 8 versions about an invalid key
                 if (geyser.getConfig().isDebugMode()) {
@@ -99,23 +143,83 @@ public class LoginEncryptionUtils {
                 }
 
                 sendEncryptionFailedMessage(geyser);
+                handshake = null;
+                encryptionKey = null;
             }
+            return new LoginResult(result, data, handshake, encryptionKey, null);
         } catch (Exception ex) {
+            return new LoginResult(null, null, null, null, ex);
+        }
+    }
+
+    private static void completeLogin(GeyserSession session, List<String> certChainData, LoginResult login, Runnable onComplete) {
+        if (session.isClosed()) {
+            return;
+        }
+
+        if (login.error() != null) {
             session.disconnect("disconnectionScreen.internalError.cantConnect");
-            throw new RuntimeException("Unable to complete login", ex);
+            session.getGeyser().getLogger().error("Unable to complete login", login.error());
+            return;
         }
+
+        if (login.clientData() == null) {
+            session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account"));
+            return;
+        }
+
+        IdentityData extraData = login.chain().identityClaims().extraData;
+        session.setAuthenticationData(new AuthData(extraData.displayName, extraData.identity, extraData.xuid));
+        session.setCertChainData(certChainData);
+        session.setClientData(login.clientData());
+
+        if (login.handshake() != null) {
+            // The handshake must leave unencrypted
+            session.sendUpstreamPacketImmediately(login.handshake());
+            session.getUpstream().getSession().enableEncryption(login.encryptionKey());
+        }
+
+        onComplete.run();
+    }
+
+    private static synchronized ExecutorService getLoginExecutor() {
+        if (LOGIN_EXECUTOR == null) {
+            LOGIN_EXECUTOR = new ThreadPoolExecutor(LOGIN_THREADS, LOGIN_THREADS, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(MAX_PENDING_LOGINS), new DefaultThreadFactory("Geyser login thread"));
+        }
+        return LOGIN_EXECUTOR;
+    }
+
+    public static synchronized void shutdown() {
+        if (LOGIN_EXECUTOR != null) {
+            LOGIN_EXECUTOR.shutdown();
+            LOGIN_EXECUTOR = null;
+        }
+    }
+
+    public static synchronized int getPendingLogins() {
+        return LOGIN_EXECUTOR == null ? 0 : LOGIN_EXECUTOR.getQueue().size();
+    }
+
+    public static long getRejectedLogins() {
+        return REJECTED_LOGINS.sum();
     }
 
-    private static void startEncryptionHandshake(GeyserSession session, PublicKey key) throws Exception {
-        KeyPair serverKeyPair = EncryptionUtils.createKeyPair();
-        byte[] token = EncryptionUtils.generateRandomToken();
+    public static LatencyHistogram getLoginQueueLatency() {
+        return LOGIN_QUEUE_LATENCY;
+    }
 
-        ServerToClientHandshakePacket packet = new ServerToClientHandshakePacket();
-        packet.setJwt(EncryptionUtils.createHandshakeJwt(serverKeyPair, token));
-        session.sendUpstreamPacketImmediately(packet);
+    public static LatencyHistogram getLoginCryptoLatency() {
+        return LOGIN_CRYPTO_LATENCY;
+    }
 
-        SecretKey encryptionKey = EncryptionUtils.getSecretKey(serverKeyPair.getPrivate(), key, token);
-        session.getUpstream().getSession().enableEncryption(encryptionKey);
+    /**
+     * @param chain null if validation failed with {@code error}
+     * @param clientData null if the chain was not signed and proxy connections are disabled
+     * @param handshake null if encryption could not be set up on this Java version
+     */
+    private record LoginResult(ChainValidationResult chain, BedrockClientData clientData, ServerToClientHandshakePacket handshake,
+                               SecretKey encryptionKey, Exception error) {
     }
 
     private static void sendEncryptionFailedMessage(GeyserImpl geyser) {
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.entity;
+
+import org.cloudburstmc.protocol.bedrock.data.entity.EntityDataMap;
+import org.cloudburstmc.protocol.bedrock.data.entity.EntityDataTypes;
+import org.cloudburstmc.protocol.bedrock.data.entity.EntityFlag;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+public class GeyserDirtyMetadataTest {
+
+    @Test
+    public void hologramStream() {
+        // A hologram line whose metadata is re-sent by the server every tick, but only changes every 20 ticks
+        GeyserDirtyMetadata metadata = new GeyserDirtyMetadata();
+        int packets = 0;
+        for (int tick = 0; tick < 200; tick++) {
+            metadata.put(EntityDataTypes.NAME, "Line " + (tick / 20));
+            metadata.put(EntityDataTypes.NAMETAG_ALWAYS_SHOW, (byte) 1);
+            metadata.put(EntityDataTypes.SCALE, 0f);
+
+            EntityDataMap map = new EntityDataMap();
+            if (metadata.apply(map)) {
+                packets++;
+                if (tick == 0) {
+                    Assertions.assertEquals(3, map.size());
+                } else {
+                    Assertions.assertEquals(1, map.size());
+                    Assertions.assertEquals("Line " + (tick / 20), map.get(EntityDataTypes.NAME));
+                }
+            } else {
+                Assertions.assertTrue(map.isEmpty());
+            }
+            Assertions.assertFalse(metadata.hasEntries());
+        }
+        Assertions.assertEquals(10, packets);
+    }
+
+    @Test
+    public void clearSentResendsValues() {
+        GeyserDirtyMetadata metadata = new GeyserDirtyMetadata();
+        metadata.put(EntityDataTypes.NAME, "Hologram");
+        Assertions.assertTrue(metadata.apply(new EntityDataMap()));
+
+        metadata.put(EntityDataTypes.NAME, "Hologram");
+        Assertions.assertFalse(metadata.apply(new EntityDataMap()));
+
+        // The client forgets everything when the entity is removed
+        metadata.clearSent();
+        metadata.put(EntityDataTypes.NAME, "Hologram");
+        Assertions.assertTrue(metadata.apply(new EntityDataMap()));
+    }
+
+    @Test
+    public void unchangedFlags() {
+        GeyserDirtyMetadata metadata = new GeyserDirtyMetadata();
+        EnumSet<EntityFlag> flags = EnumSet.of(EntityFlag.CAN_SHOW_NAME, EntityFlag.HAS_GRAVITY);
+        metadata.setSentFlags(flags);
+        Assertions.assertFalse(metadata.updateSentFlags(flags));
+
+        // Changed and changed back before being sent
+        flags.add(EntityFlag.ON_FIRE);
+        flags.remove(EntityFlag.ON_FIRE);
+        Assertions.assertFalse(metadata.updateSentFlags(flags));
+
+        flags.add(EntityFlag.SNEAKING);
+        Assertions.assertTrue(metadata.updateSentFlags(flags));
+        Assertions.assertFalse(metadata.updateSentFlags(flags));
+    }
+
+    @Test
+    public void correctionsAreSentWithoutSuppression() {
+        // The session player predicts its own state, so the server re-sending an old value is a correction
+        GeyserDirtyMetadata metadata = new GeyserDirtyMetadata();
+        metadata.setSuppressUnchanged(false);
+        EnumSet<EntityFlag> flags = EnumSet.of(EntityFlag.HAS_GRAVITY);
+        metadata.setSentFlags(flags);
+        Assertions.assertTrue(metadata.updateSentFlags(flags));
+
+        metadata.put(EntityDataTypes.HEIGHT, 1.8f);
+        Assertions.assertTrue(metadata.apply(new EntityDataMap()));
+        metadata.put(EntityDataTypes.HEIGHT, 1.8f);
+        EntityDataMap map = new EntityDataMap();
+        Assertions.assertTrue(metadata.apply(map));
+        Assertions.assertEquals(1.8f, map.get(EntityDataTypes.HEIGHT));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.inventory.click;
+
+import com.github.steveice10.mc.protocol.data.game.entity.metadata.ItemStack;
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.StringTag;
+import org.geysermc.geyser.inventory.GeyserItemStack;
+import org.geysermc.geyser.inventory.SlotType;
+import org.geysermc.geyser.item.type.Item;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ClickCompressionTest {
+    private static final Item EMERALD = new Item("emerald", Item.builder());
+    private static final Item ENDER_PEARL = new Item("ender_pearl", Item.builder().stackSize(16));
+    private static final int EMERALD_ID = 1;
+    private static final int ENDER_PEARL_ID = 2;
+
+    @Test
+    public void placeCursorInEmptySlot() {
+        Assertions.assertTrue(canPlace(5, stack(EMERALD, EMERALD_ID, 5), GeyserItemStack.EMPTY));
+    }
+
+    @Test
+    public void placeCursorOnSameItem() {
+        Assertions.assertTrue(canPlace(5, stack(EMERALD, EMERALD_ID, 5), stack(EMERALD, EMERALD_ID, 30)));
+    }
+
+    @Test
+    public void placeCursorFillingStack() {
+        Assertions.assertTrue(canPlace(5, stack(EMERALD, EMERALD_ID, 5), stack(EMERALD, EMERALD_ID, 59)));
+    }
+
+    @Test
+    public void placeCursorOverflowingStack() {
+        // A left click would leave items in the cursor
+        Assertions.assertFalse(canPlace(3, stack(ENDER_PEARL, ENDER_PEARL_ID, 3), stack(ENDER_PEARL, ENDER_PEARL_ID, 14)));
+    }
+
+    @Test
+    public void placeCursorOnOtherItem() {
+        // A left click would swap the items
+        Assertions.assertFalse(canPlace(5, stack(EMERALD, EMERALD_ID, 5), stack(ENDER_PEARL, ENDER_PEARL_ID, 4)));
+    }
+
+    @Test
+    public void placeCursorOnItemWithOtherNbt() {
+        GeyserItemStack named = stack(EMERALD, EMERALD_ID, 4);
+        CompoundTag tag = new CompoundTag("");
+        tag.put(new StringTag("display", "{\"Name\":\"test\"}"));
+        named.setNbt(tag);
+        Assertions.assertFalse(canPlace(5, stack(EMERALD, EMERALD_ID, 5), named));
+    }
+
+    @Test
+    public void placePartOfCursor() {
+        Assertions.assertFalse(canPlace(3, stack(EMERALD, EMERALD_ID, 5), GeyserItemStack.EMPTY));
+    }
+
+    @Test
+    public void placeInOutputSlot() {
+        Assertions.assertFalse(ClickCompression.canCompress(Click.RIGHT, 5, stack(EMERALD, EMERALD_ID, 5),
+                SlotType.OUTPUT, GeyserItemStack.EMPTY));
+    }
+
+    @Test
+    public void singleClick() {
+        Assertions.assertFalse(canPlace(1, stack(EMERALD, EMERALD_ID, 1), GeyserItemStack.EMPTY));
+    }
+
+    @Test
+    public void onlyRightClicks() {
+        Assertions.assertFalse(ClickCompression.canCompress(Click.LEFT, 5, stack(EMERALD, EMERALD_ID, 5),
+                SlotType.NORMAL, GeyserItemStack.EMPTY));
+    }
+
+    @Test
+    public void dropCursor() {
+        Assertions.assertTrue(ClickCompression.canCompress(Click.RIGHT_OUTSIDE, 5, stack(EMERALD, EMERALD_ID, 5), null, null));
+        Assertions.assertEquals(Click.LEFT_OUTSIDE, ClickCompression.leftClickFor(Click.RIGHT_OUTSIDE));
+    }
+
+    @Test
+    public void dropPartOfCursor() {
+        Assertions.assertFalse(ClickCompression.canCompress(Click.RIGHT_OUTSIDE, 3, stack(EMERALD, EMERALD_ID, 5), null, null));
+    }
+
+    private static boolean canPlace(int runLength, GeyserItemStack cursor, GeyserItemStack clicked) {
+        Assertions.assertEquals(Click.LEFT, ClickCompression.leftClickFor(Click.RIGHT));
+        return ClickCompression.canCompress(Click.RIGHT, runLength, cursor, SlotType.NORMAL, clicked);
+    }
+
+    private static GeyserItemStack stack(Item item, int javaId, int amount) {
+        GeyserItemStack stack = GeyserItemStack.from(new ItemStack(javaId, amount, null));
+        stack.setItem(item);
+        return stack;
+    }
+}
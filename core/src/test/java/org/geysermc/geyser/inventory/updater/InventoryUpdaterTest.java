@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.inventory.updater;
+
+import org.cloudburstmc.protocol.bedrock.data.definitions.ItemDefinition;
+import org.cloudburstmc.protocol.bedrock.data.definitions.SimpleItemDefinition;
+import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class InventoryUpdaterTest {
+    private static final ItemDefinition GLASS_PANE = new SimpleItemDefinition("minecraft:glass_pane", 1, false);
+    private static final ItemDefinition CLOCK = new SimpleItemDefinition("minecraft:clock", 2, false);
+    private static final ItemDefinition EMERALD = new SimpleItemDefinition("minecraft:emerald", 3, false);
+
+    @Test
+    public void menuRefreshes() {
+        // A 54 slot shop menu resent several times a second, where only a countdown and the odd offer change
+        Random random = new Random(0);
+        ItemData[] client = null;
+        ItemData[] sent = null;
+        int netId = 1;
+        int fullUpdates = 0;
+        int slotUpdates = 0;
+        for (int refresh = 0; refresh < 100; refresh++) {
+            ItemData[] items = new ItemData[54];
+            for (int i = 0; i < items.length; i++) {
+                // Each refresh is translated again, so none of these are the same instances as last time
+                items[i] = item(GLASS_PANE, 1, i + 1);
+            }
+            items[4] = item(CLOCK, 100 - refresh, 100);
+            items[22] = item(EMERALD, refresh / 10 + 1, 101);
+            if (refresh % 25 == 24) {
+                // The whole page changes
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = item(EMERALD, random.nextInt(64) + 1, 200 + netId++);
+                }
+            }
+
+            int[] changedSlots = InventoryUpdater.changedSlots(sent, items);
+            if (changedSlots == null) {
+                client = items.clone();
+                fullUpdates++;
+            } else {
+                for (int slot : changedSlots) {
+                    client[slot] = items[slot];
+                }
+                slotUpdates += changedSlots.length;
+            }
+            sent = items.clone();
+
+            for (int i = 0; i < items.length; i++) {
+                Assertions.assertTrue(items[i].equals(client[i], true, true, true), "slot " + i + " after refresh " + refresh);
+                Assertions.assertEquals(items[i].getNetId(), client[i].getNetId());
+            }
+        }
+
+        // The first refresh, the four page changes and the three refreshes changing back
+        Assertions.assertEquals(8, fullUpdates);
+        Assertions.assertTrue(slotUpdates < 200, "slot updates: " + slotUpdates);
+    }
+
+    @Test
+    public void netIdChangeIsSent() {
+        ItemData[] sent = {item(EMERALD, 1, 1), item(EMERALD, 1, 2), item(EMERALD, 1, 3)};
+        ItemData[] items = {item(EMERALD, 1, 1), item(EMERALD, 1, 5), item(EMERALD, 1, 3)};
+        Assertions.assertArrayEquals(new int[] {1}, InventoryUpdater.changedSlots(sent, items));
+    }
+
+    @Test
+    public void unknownStateSendsContents() {
+        ItemData[] items = {item(EMERALD, 1, 1)};
+        Assertions.assertNull(InventoryUpdater.changedSlots(null, items));
+        Assertions.assertNull(InventoryUpdater.changedSlots(new ItemData[2], items));
+    }
+
+    private static ItemData item(ItemDefinition definition, int count, int netId) {
+        return ItemData.builder()
+                .definition(definition)
+                .count(count)
+                .netId(netId)
+                .usingNetId(true)
+                .build();
+    }
+}
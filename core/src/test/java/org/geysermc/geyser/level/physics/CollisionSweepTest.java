@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.level.physics;
+
+import org.geysermc.geyser.registry.ArrayRegistry;
+import org.geysermc.geyser.registry.loader.RegistryLoaders;
+import org.geysermc.geyser.translator.collision.BlockCollision;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class CollisionSweepTest {
+
+    @Test
+    public void flatLayout() {
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            BlockCollision collision = randomCollision(random);
+            double[] flat = collision.getFlatBoundingBoxes();
+            BoundingBox[] boxes = collision.getBoundingBoxes();
+            Assertions.assertEquals(boxes.length * BlockCollision.FLAT_BOX_STRIDE, flat.length);
+            for (int j = 0; j < boxes.length; j++) {
+                BoundingBox box = boxes[j];
+                int offset = j * BlockCollision.FLAT_BOX_STRIDE;
+                double[] expected = {
+                        box.getMiddleX(), box.getMiddleY(), box.getMiddleZ(),
+                        box.getSizeX(), box.getSizeY(), box.getSizeZ(),
+                        box.getMin().getX(), box.getMin().getY(), box.getMin().getZ(),
+                        box.getMax().getX(), box.getMax().getY(), box.getMax().getZ()
+                };
+                for (int k = 0; k < expected.length; k++) {
+                    Assertions.assertEquals(expected[k], flat[offset + k], "box " + j + " value " + k);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sweepMatchesMaxOffset() {
+        Random random = new Random(0);
+        for (int round = 0; round < 2000; round++) {
+            // A 3x4x3 area of random blocks, some without collision
+            List<BlockCollision> collisions = new ArrayList<>();
+            List<int[]> positions = new ArrayList<>();
+            // Start small so the box array has to grow
+            double[] boxes = new double[BlockCollision.FLAT_BOX_STRIDE];
+            int boxCount = 0;
+            for (int x = -1; x <= 1; x++) {
+                for (int y = -1; y <= 2; y++) {
+                    for (int z = -1; z <= 1; z++) {
+                        if (random.nextInt(3) == 0) {
+                            continue;
+                        }
+                        BlockCollision collision = randomCollision(random);
+                        collisions.add(collision);
+                        positions.add(new int[] {x, y, z});
+                        boxes = CollisionManager.appendCollisionBoxes(boxes, boxCount, collision, x, y, z);
+                        boxCount += collision.getBoundingBoxes().length;
+                    }
+                }
+            }
+
+            BoundingBox player = new BoundingBox(random.nextDouble() - 0.5, random.nextDouble() * 2 - 0.5, random.nextDouble() - 0.5,
+                    0.6, 1.8, 0.6);
+            for (Axis axis : Axis.VALUES) {
+                double movement = (random.nextDouble() - 0.5) * 2;
+                if (random.nextInt(10) == 0) {
+                    // Within tolerance of zero
+                    movement = CollisionManager.COLLISION_TOLERANCE / 2;
+                }
+
+                double expected = movement;
+                for (int i = 0; i < collisions.size(); i++) {
+                    int[] position = positions.get(i);
+                    expected = collisions.get(i).computeCollisionOffset(position[0], position[1], position[2], player, axis, expected);
+                    if (expected == 0) {
+                        break;
+                    }
+                }
+
+                double actual = CollisionManager.computeSweepOffset(boxes, boxCount, player, axis, movement);
+                Assertions.assertEquals(expected, actual, "round " + round + " axis " + axis);
+            }
+        }
+    }
+
+    @Test
+    public void outOfRangeCollisionIndexes() {
+        ArrayRegistry<BlockCollision> registry = ArrayRegistry.create(RegistryLoaders.empty(() -> new BlockCollision[4]));
+        Assertions.assertNull(registry.get(-1));
+        Assertions.assertNull(registry.get(4));
+        Assertions.assertNull(registry.get(Integer.MAX_VALUE));
+        Assertions.assertNull(registry.get(Integer.MIN_VALUE));
+    }
+
+    private static BlockCollision randomCollision(Random random) {
+        BoundingBox[] boxes = new BoundingBox[random.nextInt(4) + 1];
+        for (int i = 0; i < boxes.length; i++) {
+            double sizeX = random.nextDouble();
+            double sizeY = random.nextDouble() * 1.5; // Fences and walls are taller than a block
+            double sizeZ = random.nextDouble();
+            boxes[i] = new BoundingBox(sizeX / 2 + random.nextDouble() * (1 - sizeX), sizeY / 2 + random.nextDouble() * (1 - Math.min(sizeY, 1)),
+                    sizeZ / 2 + random.nextDouble() * (1 - sizeZ), sizeX, sizeY, sizeZ);
+        }
+        return new BlockCollision(boxes) {
+        };
+    }
+}
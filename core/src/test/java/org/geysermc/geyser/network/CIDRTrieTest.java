@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+public class CIDRTrieTest {
+    private static final List<String> WHITELIST = List.of("127.0.0.1", "172.18.0.0/16", "10.1.2.128/25", "2001:db8::/48", "::1");
+
+    private static final List<String> ADDRESSES = List.of(
+            "127.0.0.1", "127.0.0.2",
+            "172.18.0.1", "172.18.255.255", "172.19.0.1", "172.17.255.255",
+            "10.1.2.127", "10.1.2.128", "10.1.2.255", "10.1.3.0",
+            "2001:db8::1", "2001:db8:0:ffff::1", "2001:db8:ffff::1", "2001:db9::1",
+            "::1", "::2", "8.8.8.8");
+
+    @Test
+    public void matchesLikeCIDRMatcher() throws UnknownHostException {
+        CIDRTrie trie = new CIDRTrie(WHITELIST);
+        List<CIDRMatcher> matchers = WHITELIST.stream().map(CIDRMatcher::new).toList();
+
+        for (String address : ADDRESSES) {
+            InetAddress inetAddress = InetAddress.getByName(address);
+            boolean expected = matchers.stream().anyMatch(matcher -> matcher.matches(inetAddress));
+            Assertions.assertEquals(expected, trie.matches(inetAddress), address);
+        }
+    }
+
+    @Test
+    public void ipv6PrefixOf32() throws UnknownHostException {
+        // CIDRMatcher treats any /32 as a single address, which is only right for IPv4
+        CIDRTrie trie = new CIDRTrie(List.of("2001:db8::/32"));
+        Assertions.assertTrue(trie.matches(InetAddress.getByName("2001:db8:ffff::1")));
+        Assertions.assertFalse(trie.matches(InetAddress.getByName("2001:db9::1")));
+    }
+
+    @Test
+    public void emptyPrefixMatchesFamily() throws UnknownHostException {
+        CIDRTrie trie = new CIDRTrie(List.of("0.0.0.0/0"));
+        Assertions.assertTrue(trie.matches(InetAddress.getByName("203.0.113.7")));
+        Assertions.assertFalse(trie.matches(InetAddress.getByName("2001:db8::1")));
+    }
+}
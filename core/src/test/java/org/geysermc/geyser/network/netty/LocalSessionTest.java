@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.network.netty;
+
+import com.github.steveice10.mc.protocol.MinecraftProtocol;
+import com.github.steveice10.mc.protocol.packet.login.clientbound.ClientboundCustomQueryPacket;
+import com.github.steveice10.mc.protocol.packet.login.serverbound.ServerboundCustomQueryAnswerPacket;
+import com.github.steveice10.packetlib.Session;
+import com.github.steveice10.packetlib.crypt.AESEncryption;
+import com.github.steveice10.packetlib.event.session.SessionAdapter;
+import com.github.steveice10.packetlib.packet.Packet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalAddress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class LocalSessionTest {
+    private static final Key KEY = new SecretKeySpec(new byte[16], "AES");
+    private static final int COMPRESSION_THRESHOLD = 256;
+
+    @AfterEach
+    public void reset() {
+        LocalSession.setUnframed(false);
+    }
+
+    @Test
+    public void compressionAndEncryptionWithoutFraming() throws Exception {
+        LocalSession.setUnframed(true);
+        MinecraftProtocol protocol = new MinecraftProtocol("Test");
+        LocalSession session = new LocalSession("localhost", 25565, new LocalAddress("test"), "127.0.0.1", protocol, protocol.createHelper());
+        List<Packet> received = new ArrayList<>();
+        session.addListener(new SessionAdapter() {
+            @Override
+            public void packetReceived(Session session, Packet packet) {
+                received.add(packet);
+            }
+        });
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) {
+                session.initializePipeline(ch);
+            }
+        });
+
+        // Connecting sends the handshake and login start, one buffer each, starting with the packet ID rather than a length
+        ByteBuf intention = channel.readOutbound();
+        ByteBuf hello = channel.readOutbound();
+        Assertions.assertEquals(0x00, readVarInt(intention));
+        Assertions.assertEquals(0x00, readVarInt(hello));
+        intention.release();
+        hello.release();
+
+        // Neither may throw with the sizer missing
+        session.enableEncryption(new AESEncryption(KEY));
+        session.setCompressionThreshold(COMPRESSION_THRESHOLD, true);
+        List<String> names = channel.pipeline().names();
+        Assertions.assertTrue(names.indexOf("encryption") < names.indexOf("sizer"), names.toString());
+        Assertions.assertTrue(names.indexOf("sizer") < names.indexOf("compression"), names.toString());
+        Assertions.assertTrue(names.indexOf("compression") < names.indexOf("codec"), names.toString());
+
+        // The server's end of the connection
+        AESEncryption server = new AESEncryption(KEY);
+
+        byte[] queryData = new byte[COMPRESSION_THRESHOLD * 2];
+        Arrays.fill(queryData, (byte) 7);
+        ByteBuf query = Unpooled.buffer();
+        writeVarInt(query, 0x04);
+        writeVarInt(query, 42);
+        byte[] queryChannel = "geyser:test".getBytes(StandardCharsets.UTF_8);
+        writeVarInt(query, queryChannel.length);
+        query.writeBytes(queryChannel);
+        query.writeBytes(queryData);
+        channel.writeInbound(encrypt(server, compress(query)));
+
+        Assertions.assertEquals(1, received.size());
+        ClientboundCustomQueryPacket receivedQuery = (ClientboundCustomQueryPacket) received.get(0);
+        Assertions.assertEquals(42, receivedQuery.getMessageId());
+        Assertions.assertArrayEquals(queryData, receivedQuery.getData());
+
+        session.send(new ServerboundCustomQueryAnswerPacket(42, queryData));
+
+        // Every buffer has to be decrypted in order, including any sent by the session's own listener
+        ByteBuf answer = null;
+        ByteBuf outbound;
+        while ((outbound = channel.readOutbound()) != null) {
+            if (answer != null) {
+                answer.release();
+            }
+            answer = decrypt(server, outbound);
+        }
+        Assertions.assertNotNull(answer);
+
+        int dataLength = readVarInt(answer);
+        Assertions.assertTrue(dataLength >= COMPRESSION_THRESHOLD, "answer should be compressed");
+        byte[] compressed = new byte[answer.readableBytes()];
+        answer.readBytes(compressed);
+        answer.release();
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        byte[] inflated = new byte[dataLength];
+        Assertions.assertEquals(dataLength, inflater.inflate(inflated));
+        Assertions.assertTrue(inflater.finished(), "a compressed packet must fill the whole buffer");
+        inflater.end();
+
+        ByteBuf answerPacket = Unpooled.wrappedBuffer(inflated);
+        Assertions.assertEquals(0x02, readVarInt(answerPacket));
+        Assertions.assertEquals(42, readVarInt(answerPacket));
+
+        channel.finishAndReleaseAll();
+    }
+
+    private static ByteBuf compress(ByteBuf packet) {
+        byte[] uncompressed = new byte[packet.readableBytes()];
+        packet.readBytes(uncompressed);
+        packet.release();
+
+        Deflater deflater = new Deflater();
+        deflater.setInput(uncompressed);
+        deflater.finish();
+        byte[] buffer = new byte[8192];
+        int length = deflater.deflate(buffer);
+        deflater.end();
+
+        ByteBuf compressed = Unpooled.buffer();
+        writeVarInt(compressed, uncompressed.length);
+        compressed.writeBytes(buffer, 0, length);
+        return compressed;
+    }
+
+    private static ByteBuf encrypt(AESEncryption encryption, ByteBuf buf) throws Exception {
+        byte[] input = new byte[buf.readableBytes()];
+        buf.readBytes(input);
+        buf.release();
+        byte[] output = new byte[encryption.getEncryptOutputSize(input.length)];
+        int length = encryption.encrypt(input, 0, input.length, output, 0);
+        return Unpooled.wrappedBuffer(output, 0, length);
+    }
+
+    private static ByteBuf decrypt(AESEncryption encryption, ByteBuf buf) throws Exception {
+        byte[] input = new byte[buf.readableBytes()];
+        buf.readBytes(input);
+        buf.release();
+        byte[] output = new byte[encryption.getDecryptOutputSize(input.length)];
+        int length = encryption.decrypt(input, 0, input.length, output, 0);
+        return Unpooled.wrappedBuffer(output, 0, length);
+    }
+
+    private static void writeVarInt(ByteBuf buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuf buf) {
+        int value = 0;
+        int size = 0;
+        int b;
+        while (((b = buf.readByte()) & 0x80) == 0x80) {
+            value |= (b & 0x7F) << (size++ * 7);
+        }
+        return value | ((b & 0x7F) << (size * 7));
+    }
+}
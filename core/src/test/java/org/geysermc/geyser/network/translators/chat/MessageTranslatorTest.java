@@ -26,6 +26,7 @@
 package org.geysermc.geyser.network.translators.chat;
 
 import com.github.steveice10.mc.protocol.data.DefaultComponentSerializer;
+import org.geysermc.geyser.text.MinecraftTranslationRegistry;
 import org.geysermc.geyser.translator.text.MessageTranslator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -94,6 +95,15 @@ public class MessageTranslatorTest {
         Assertions.assertEquals("     ", MessageTranslator.convertToPlainTextLenient("     ", "en_US"), "Whitespace is not preserved");
     }
 
+    @Test
+    public void toMessageFormat() {
+        Assertions.assertEquals("{0} was slain by {1}", MinecraftTranslationRegistry.toMessageFormat("%s was slain by %s").toPattern(), "Sequential inserts are not converted");
+        Assertions.assertEquals("{1} {0}", MinecraftTranslationRegistry.toMessageFormat("%2$s %1$s").toPattern(), "Positional inserts are not converted");
+        Assertions.assertEquals("Gave 1 [Camotoy's Head] to DoctorMad9952", MinecraftTranslationRegistry.toMessageFormat("Gave %s %s to %s").format(new Object[] {"1", "[Camotoy's Head]", "DoctorMad9952"}), "Inserts are not formatted");
+        Assertions.assertEquals("Camotoy's Head", MinecraftTranslationRegistry.toMessageFormat("%s's Head").format(new Object[] {"Camotoy"}), "Single quotes are not preserved");
+        Assertions.assertEquals("100% 5$", MinecraftTranslationRegistry.toMessageFormat("100% 5$").format(new Object[0]), "Lone percent signs are not preserved");
+    }
+
     @Test
     public void testNullTextPacket() {
         DefaultComponentSerializer.get().deserialize("null");
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.session;
+
+import com.github.steveice10.mc.protocol.MinecraftProtocol;
+import com.github.steveice10.mc.protocol.packet.login.clientbound.ClientboundCustomQueryPacket;
+import com.github.steveice10.mc.protocol.packet.login.serverbound.ServerboundCustomQueryAnswerPacket;
+import com.github.steveice10.packetlib.Session;
+import com.github.steveice10.packetlib.event.session.DisconnectedEvent;
+import com.github.steveice10.packetlib.event.session.SessionAdapter;
+import com.github.steveice10.packetlib.packet.Packet;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.geysermc.geyser.network.netty.LocalSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class DownstreamSessionTest {
+    private static final int READ_TIMEOUT_SECONDS = 2;
+
+    @Test
+    public void moveKeepsReadsWritesAndTimeouts() throws Exception {
+        DefaultEventLoopGroup serverGroup = new DefaultEventLoopGroup(1);
+        DefaultEventLoopGroup clientGroup = new DefaultEventLoopGroup(2);
+        try {
+            EventLoop originalLoop = clientGroup.next();
+            EventLoop targetLoop = clientGroup.next();
+            Assertions.assertNotSame(originalLoop, targetLoop);
+
+            // The Java server's end, which just collects what the session writes
+            LocalAddress address = new LocalAddress("downstream-move-test");
+            CompletableFuture<Channel> serverChild = new CompletableFuture<>();
+            BlockingQueue<ByteBuf> serverReceived = new LinkedBlockingQueue<>();
+            Channel server = new ServerBootstrap()
+                    .group(serverGroup)
+                    .channel(LocalServerChannel.class)
+                    .childHandler(new ChannelInitializer<>() {
+                        @Override
+                        protected void initChannel(Channel ch) {
+                            serverChild.complete(ch);
+                            ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                                @Override
+                                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                    serverReceived.add((ByteBuf) msg);
+                                }
+                            });
+                        }
+                    })
+                    .bind(address).sync().channel();
+
+            MinecraftProtocol protocol = new MinecraftProtocol("Test");
+            LocalSession session = new LocalSession("localhost", 25565, address, "127.0.0.1", protocol, protocol.createHelper(), originalLoop);
+            CompletableFuture<Packet> received = new CompletableFuture<>();
+            CompletableFuture<DisconnectedEvent> disconnected = new CompletableFuture<>();
+            session.addListener(new SessionAdapter() {
+                @Override
+                public void packetReceived(Session session, Packet packet) {
+                    received.complete(packet);
+                }
+
+                @Override
+                public void disconnected(DisconnectedEvent event) {
+                    disconnected.complete(event);
+                }
+            });
+            session.setReadTimeout(READ_TIMEOUT_SECONDS);
+            session.connect(false);
+
+            Channel channel = serverChild.get(5, TimeUnit.SECONDS);
+            // The handshake and login start
+            release(serverReceived.poll(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(session.isConnected());
+
+            DownstreamSession downstream = new DownstreamSession(session);
+            downstream.moveToEventLoop(targetLoop);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (session.getChannel().eventLoop() != targetLoop || !session.getChannel().config().isAutoRead()) {
+                Assertions.assertTrue(System.nanoTime() < deadline, "channel was not moved");
+                Thread.sleep(10);
+            }
+            Assertions.assertNotNull(session.getChannel().pipeline().get("readTimeout"), "read timeout handler was not added back");
+            serverReceived.forEach(DownstreamSessionTest::release);
+            serverReceived.clear();
+
+            // Reading
+            ByteBuf query = Unpooled.buffer();
+            writeVarInt(query, 0x04);
+            writeVarInt(query, 42);
+            byte[] queryChannel = "geyser:test".getBytes(StandardCharsets.UTF_8);
+            writeVarInt(query, queryChannel.length);
+            query.writeBytes(queryChannel);
+            ByteBuf frame = Unpooled.buffer();
+            writeVarInt(frame, query.readableBytes());
+            frame.writeBytes(query);
+            query.release();
+            channel.writeAndFlush(frame);
+            Packet packet = received.get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(42, ((ClientboundCustomQueryPacket) packet).getMessageId());
+
+            // Writing
+            session.send(new ServerboundCustomQueryAnswerPacket(42, new byte[0]));
+            ByteBuf answer = serverReceived.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(answer, "nothing was written after the move");
+            release(answer);
+
+            // The server stays quiet from here, so the restored read timeout has to close the session
+            DisconnectedEvent event = disconnected.get(READ_TIMEOUT_SECONDS * 5L, TimeUnit.SECONDS);
+            Assertions.assertInstanceOf(ReadTimeoutException.class, event.getCause());
+
+            server.close().sync();
+        } finally {
+            clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+            serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void release(ByteBuf buf) {
+        if (buf != null) {
+            buf.release();
+        }
+    }
+
+    private static void writeVarInt(ByteBuf buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+}
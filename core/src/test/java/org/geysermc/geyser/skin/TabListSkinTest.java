@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.skin;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.cloudburstmc.protocol.bedrock.codec.BedrockCodec;
+import org.cloudburstmc.protocol.bedrock.codec.BedrockCodecHelper;
+import org.cloudburstmc.protocol.bedrock.data.skin.ImageData;
+import org.cloudburstmc.protocol.bedrock.data.skin.SerializedSkin;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.PlayerListPacket;
+import org.cloudburstmc.protocol.bedrock.packet.PlayerSkinPacket;
+import org.geysermc.geyser.network.GameProtocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+public class TabListSkinTest {
+    private static final int PLAYERS = 500;
+
+    @Test
+    public void placeholderTabListIsSmallerCompressed() {
+        BedrockCodec codec = GameProtocol.DEFAULT_BEDROCK_CODEC;
+        BedrockCodecHelper helper = codec.createHelper();
+        Random random = new Random(0);
+
+        List<UUID> uuids = new ArrayList<>();
+        List<SerializedSkin> skins = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            uuids.add(new UUID(random.nextLong(), random.nextLong()));
+            byte[] skinData = new byte[64 * 64 * 4];
+            random.nextBytes(skinData);
+            String skinId = "http://textures.minecraft.net/texture/" + Integer.toHexString(i);
+            skins.add(SerializedSkin.of(skinId, "", SkinProvider.SkinGeometry.WIDE.geometryName(),
+                    ImageData.of(skinData), Collections.emptyList(), ImageData.of(new byte[0]),
+                    SkinProvider.SkinGeometry.WIDE.geometryData(), "", true, false, false, "no-cape", skinId));
+        }
+
+        PlayerListPacket fullList = new PlayerListPacket();
+        fullList.setAction(PlayerListPacket.Action.ADD);
+        PlayerListPacket placeholderList = new PlayerListPacket();
+        placeholderList.setAction(PlayerListPacket.Action.ADD);
+        for (int i = 0; i < PLAYERS; i++) {
+            fullList.getEntries().add(entry(uuids.get(i), i, skins.get(i)));
+            placeholderList.getEntries().add(entry(uuids.get(i), i, SkinManager.PLACEHOLDER_SKIN));
+        }
+
+        long fullBytes = compressedSize(codec, helper, fullList);
+        long placeholderBytes = compressedSize(codec, helper, placeholderList);
+        // The join packet should be close to the size of the names and IDs alone
+        Assertions.assertTrue(placeholderBytes * 20 < fullBytes, placeholderBytes + " vs " + fullBytes);
+
+        // Each real skin follows on its own, which mustn't add much over sending them all at once
+        long deferredBytes = placeholderBytes;
+        for (int i = 0; i < PLAYERS; i++) {
+            PlayerSkinPacket skinPacket = new PlayerSkinPacket();
+            skinPacket.setUuid(uuids.get(i));
+            skinPacket.setOldSkinName("");
+            skinPacket.setNewSkinName(skins.get(i).getSkinId());
+            skinPacket.setSkin(skins.get(i));
+            skinPacket.setTrustedSkin(true);
+            deferredBytes += compressedSize(codec, helper, skinPacket);
+        }
+        Assertions.assertTrue(deferredBytes < fullBytes * 1.05, deferredBytes + " vs " + fullBytes);
+    }
+
+    private static PlayerListPacket.Entry entry(UUID uuid, int id, SerializedSkin skin) {
+        PlayerListPacket.Entry entry = new PlayerListPacket.Entry(uuid);
+        entry.setName("Player" + id);
+        entry.setEntityId(id + 2);
+        entry.setSkin(skin);
+        entry.setXuid("");
+        entry.setPlatformChatId("");
+        entry.setTeacher(false);
+        entry.setTrustedSkin(true);
+        return entry;
+    }
+
+    private static long compressedSize(BedrockCodec codec, BedrockCodecHelper helper, BedrockPacket packet) {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            codec.tryEncode(helper, buffer, packet);
+            byte[] encoded = ByteBufUtil.getBytes(buffer);
+
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.setInput(encoded);
+            deflater.finish();
+            byte[] output = new byte[8192];
+            long size = 0;
+            while (!deflater.finished()) {
+                size += deflater.deflate(output);
+            }
+            deflater.end();
+            return size;
+        } finally {
+            buffer.release();
+        }
+    }
+}
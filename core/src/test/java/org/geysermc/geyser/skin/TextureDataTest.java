@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class TextureDataTest {
+    private static final int[][] SIZES = {{64, 64}, {64, 32}, {128, 128}};
+
+    @Test
+    public void matchesPerPixelConversion() {
+        Random random = new Random(0);
+        for (int[] size : SIZES) {
+            for (int type : new int[] {BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_4BYTE_ABGR}) {
+                BufferedImage image = new BufferedImage(size[0], size[1], type);
+                for (int y = 0; y < size[1]; y++) {
+                    for (int x = 0; x < size[0]; x++) {
+                        image.setRGB(x, y, random.nextInt());
+                    }
+                }
+
+                TextureData texture = TextureData.from(image);
+                Assertions.assertArrayEquals(perPixelImageData(image), texture.data(), size[0] + "x" + size[1] + " type " + type);
+
+                BufferedImage converted = texture.toImage();
+                for (int y = 0; y < size[1]; y++) {
+                    for (int x = 0; x < size[0]; x++) {
+                        Assertions.assertEquals(image.getRGB(x, y), converted.getRGB(x, y));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void diskCacheRoundTrip(@TempDir Path folder) throws IOException {
+        Random random = new Random(0);
+        for (boolean compress : new boolean[] {false, true}) {
+            TextureDiskCache cache = new TextureDiskCache(folder.resolve(String.valueOf(compress)), compress);
+            for (int[] size : SIZES) {
+                byte[] data = new byte[size[0] * size[1] * 4];
+                random.nextBytes(data);
+                String url = "http://textures.minecraft.net/texture/" + size[0] + "a" + size[1];
+
+                Assertions.assertNull(cache.read(url, false));
+                cache.write(url, false, new TextureData(size[0], size[1], data));
+
+                TextureData read = cache.read(url, false);
+                Assertions.assertNotNull(read);
+                Assertions.assertEquals(size[0], read.width());
+                Assertions.assertEquals(size[1], read.height());
+                Assertions.assertArrayEquals(data, read.data());
+                // Capes are processed differently, so they are kept apart from skins
+                Assertions.assertNull(cache.read(url, true));
+            }
+        }
+    }
+
+    @Test
+    public void mojangTexturesAreKeyedByHash(@TempDir Path folder) {
+        TextureDiskCache cache = new TextureDiskCache(folder, false);
+        Assertions.assertEquals(folder.resolve("1a2b3c.rgba"), cache.fileFor("http://textures.minecraft.net/texture/1a2b3c", false));
+        Assertions.assertEquals(folder.resolve("1a2b3c.rgba"), cache.fileFor("https://textures.minecraft.net/texture/1a2b3c", false));
+        Assertions.assertNotEquals(cache.fileFor("https://example.com/1a2b3c", false), cache.fileFor("https://example.com/4d5e6f", false));
+    }
+
+    /**
+     * The conversion that was used before {@link TextureData}.
+     */
+    private static byte[] perPixelImageData(BufferedImage image) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(image.getWidth() * 4 + image.getHeight() * 4);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int rgba = image.getRGB(x, y);
+                outputStream.write((rgba >> 16) & 0xFF);
+                outputStream.write((rgba >> 8) & 0xFF);
+                outputStream.write(rgba & 0xFF);
+                outputStream.write((rgba >> 24) & 0xFF);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+}
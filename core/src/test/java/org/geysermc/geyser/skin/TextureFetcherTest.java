@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TextureFetcherTest {
+    private static final int HOSTS = 4;
+    private static final int TEXTURES_PER_HOST = 50;
+    private static final int REQUESTS_PER_TEXTURE = 25;
+    private static final int MAX_REQUESTS_PER_HOST = 3;
+
+    @Test
+    public void coalescesAndLimitsPerHost() throws Exception {
+        InMemoryTextureSource source = new InMemoryTextureSource();
+        TextureFetcher fetcher = new TextureFetcher(source, MAX_REQUESTS_PER_HOST);
+
+        List<String> urls = new ArrayList<>();
+        for (int host = 0; host < HOSTS; host++) {
+            for (int texture = 0; texture < TEXTURES_PER_HOST; texture++) {
+                urls.add("https://host" + host + ".example/texture/" + texture);
+            }
+        }
+
+        List<CompletableFuture<BufferedImage>> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS_PER_TEXTURE; i++) {
+            for (String url : urls) {
+                requests.add(fetcher.requestImage(url, null));
+            }
+        }
+
+        // Nothing has completed yet, so only the first requests per host may have started
+        Assertions.assertEquals(HOSTS * MAX_REQUESTS_PER_HOST, source.pending.size());
+
+        // Finish fetches from another thread, the way a real source would
+        Thread completer = new Thread(() -> {
+            int finished = 0;
+            while (finished < urls.size()) {
+                PendingFetch fetch = source.pending.poll();
+                if (fetch == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                source.active.get(fetch.host).decrementAndGet();
+                fetch.future.complete(source.images.get(fetch.url));
+                finished++;
+            }
+        });
+        completer.start();
+
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        completer.join();
+
+        Assertions.assertEquals(urls.size(), source.fetches.get(), "every texture should be fetched exactly once");
+        Assertions.assertTrue(source.maxActive.get() <= MAX_REQUESTS_PER_HOST, "per-host limit exceeded: " + source.maxActive.get());
+        for (int i = 0; i < requests.size(); i++) {
+            Assertions.assertSame(source.images.get(urls.get(i % urls.size())), requests.get(i).join());
+        }
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        AtomicInteger attempts = new AtomicInteger();
+        TextureFetcher fetcher = new TextureFetcher(new TextureSource() {
+            @Override
+            public CompletableFuture<BufferedImage> requestImage(String url, SkinProvider.@Nullable CapeProvider provider) {
+                if (attempts.getAndIncrement() == 0) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("unavailable"));
+                }
+                return CompletableFuture.completedFuture(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+            }
+
+            @Override
+            public CompletableFuture<JsonNode> requestJson(String url) {
+                return CompletableFuture.failedFuture(new UnsupportedOperationException());
+            }
+        }, 1);
+
+        Assertions.assertTrue(fetcher.requestImage("https://example/a", null).isCompletedExceptionally());
+        Assertions.assertNotNull(fetcher.requestImage("https://example/a", null).join());
+        Assertions.assertEquals(2, attempts.get());
+    }
+
+    private record PendingFetch(String url, String host, CompletableFuture<BufferedImage> future) {
+    }
+
+    private static final class InMemoryTextureSource implements TextureSource {
+        private final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+        private final Queue<PendingFetch> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<BufferedImage> requestImage(String url, SkinProvider.@Nullable CapeProvider provider) {
+            String host = URI.create(url).getHost();
+            int nowActive = active.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+            maxActive.accumulateAndGet(nowActive, Math::max);
+            fetches.incrementAndGet();
+
+            images.put(url, new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+            CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+            pending.add(new PendingFetch(url, host, future));
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<JsonNode> requestJson(String url) {
+            return CompletableFuture.failedFuture(new UnsupportedOperationException());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.translator.protocol.java.level;
+
+import com.github.steveice10.mc.protocol.data.game.level.block.BlockChangeEntry;
+import org.cloudburstmc.math.vector.Vector3i;
+import org.cloudburstmc.nbt.NbtMap;
+import org.cloudburstmc.nbt.NbtMapBuilder;
+import org.geysermc.geyser.level.block.BlockStateValues;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class JavaExplodeTranslatorTest {
+    /**
+     * A radius 6 ball around a section corner with negative coordinates, so it touches eight sections and has more
+     * positions than there are precomputed keys.
+     */
+    private static final List<Vector3i> EXPLODED = new ArrayList<>();
+
+    static {
+        for (int x = -6; x <= 6; x++) {
+            for (int y = -6; y <= 6; y++) {
+                for (int z = -6; z <= 6; z++) {
+                    if (x * x + y * y + z * z <= 36) {
+                        EXPLODED.add(Vector3i.from(-32 + x, 64 + y, 16 + z));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sectionsCoverEveryBlockOnce() {
+        List<BlockChangeEntry[]> sections = JavaExplodeTranslator.groupBySection(EXPLODED);
+        Assertions.assertEquals(8, sections.size());
+
+        List<Vector3i> updated = new ArrayList<>();
+        for (BlockChangeEntry[] section : sections) {
+            Vector3i first = section[0].getPosition();
+            for (BlockChangeEntry entry : section) {
+                Vector3i position = entry.getPosition();
+                Assertions.assertEquals(BlockStateValues.JAVA_AIR_ID, entry.getBlock());
+                Assertions.assertEquals(first.getX() >> 4, position.getX() >> 4, position.toString());
+                Assertions.assertEquals(first.getY() >> 4, position.getY() >> 4, position.toString());
+                Assertions.assertEquals(first.getZ() >> 4, position.getZ() >> 4, position.toString());
+                updated.add(position);
+            }
+        }
+
+        Assertions.assertEquals(EXPLODED.size(), updated.size());
+        Assertions.assertTrue(updated.containsAll(EXPLODED));
+    }
+
+    @Test
+    public void particlePositionsMatchPerBlockKeys() {
+        Assertions.assertTrue(EXPLODED.size() > 512);
+
+        NbtMapBuilder expected = NbtMap.builder();
+        expected.putInt("size", EXPLODED.size());
+        for (int i = 0; i < EXPLODED.size(); i++) {
+            Vector3i pos = EXPLODED.get(i);
+            expected.putFloat("pos" + i + "x", pos.getX());
+            expected.putFloat("pos" + i + "y", pos.getY());
+            expected.putFloat("pos" + i + "z", pos.getZ());
+        }
+
+        NbtMapBuilder actual = NbtMap.builder();
+        JavaExplodeTranslator.writePositions(actual, EXPLODED);
+        Assertions.assertEquals(expected.build(), actual.build());
+    }
+}
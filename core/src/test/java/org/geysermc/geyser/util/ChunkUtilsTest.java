@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.util;
+
+import com.github.steveice10.mc.protocol.data.game.level.block.BlockChangeEntry;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.math.vector.Vector3i;
+import org.cloudburstmc.protocol.bedrock.data.definitions.BlockDefinition;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.BlockEntityDataPacket;
+import org.cloudburstmc.protocol.bedrock.packet.UpdateBlockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.UpdateSubChunkBlocksPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class ChunkUtilsTest {
+    private static final BlockDefinition AIR = new TestDefinition(0);
+    private static final BlockDefinition WATER = new TestDefinition(1);
+
+    @Test
+    public void fullSectionIsOneSubChunkUpdate() {
+        BlockChangeEntry[] entries = fullSection(-2, 3, 5);
+        TestClient client = new TestClient();
+        ChunkUtils.updateSection(-2, 3, 5, entries, client::receive, new TestBlockUpdater(client::receive));
+
+        int subChunkUpdates = 0;
+        int blockUpdates = 0;
+        int blockEntityUpdates = 0;
+        for (BedrockPacket packet : client.packets) {
+            if (packet instanceof UpdateSubChunkBlocksPacket subChunkPacket) {
+                subChunkUpdates++;
+                Assertions.assertEquals(4096, subChunkPacket.getStandardBlocks().size());
+                Assertions.assertEquals(4096, subChunkPacket.getExtraBlocks().size());
+            } else if (packet instanceof UpdateBlockPacket) {
+                blockUpdates++;
+            } else if (packet instanceof BlockEntityDataPacket) {
+                blockEntityUpdates++;
+            }
+        }
+        Assertions.assertEquals(1, subChunkUpdates);
+        // Only the blocks pushed into the section above are sent on their own
+        Assertions.assertEquals(expectedAboveUpdates(entries), blockUpdates);
+        Assertions.assertEquals(expectedBlockEntities(entries), blockEntityUpdates);
+        Assertions.assertTrue(blockEntityUpdates > 0);
+    }
+
+    @Test
+    public void blockEntitiesFollowTheirBlocks() {
+        // TestClient fails if a block entity arrives before its block
+        BlockChangeEntry[] entries = fullSection(0, -4, 0);
+        TestClient client = new TestClient();
+        ChunkUtils.updateSection(0, -4, 0, entries, client::receive, new TestBlockUpdater(client::receive));
+        Assertions.assertEquals(expectedBlockEntities(entries), client.checkedBlockEntities);
+    }
+
+    @Test
+    public void sectionMatchesPerBlockUpdates() {
+        Random random = new Random(0);
+        for (int round = 0; round < 20; round++) {
+            // Part of a section, in no particular order, as explosions and multi block changes send them
+            List<BlockChangeEntry> partial = new ArrayList<>(List.of(fullSection(round - 10, round % 5 - 2, 3)));
+            Collections.shuffle(partial, random);
+            BlockChangeEntry[] entries = partial.subList(0, random.nextInt(4096) + 1).toArray(new BlockChangeEntry[0]);
+            Vector3i first = entries[0].getPosition();
+
+            TestClient perBlock = new TestClient();
+            TestBlockUpdater perBlockUpdater = new TestBlockUpdater(perBlock::receive);
+            for (BlockChangeEntry entry : entries) {
+                // What ChunkUtils#updateBlockClientSide does
+                if (perBlockUpdater.updateLayers(entry.getBlock(), entry.getPosition(), null)) {
+                    perBlockUpdater.updateBlockEntities(entry.getBlock(), entry.getPosition());
+                }
+            }
+
+            TestClient section = new TestClient();
+            ChunkUtils.updateSection(first.getX() >> 4, first.getY() >> 4, first.getZ() >> 4, entries, section::receive,
+                    new TestBlockUpdater(section::receive));
+
+            Assertions.assertEquals(perBlock.layer0, section.layer0, "layer 0 in round " + round);
+            Assertions.assertEquals(perBlock.layer1, section.layer1, "layer 1 in round " + round);
+            Assertions.assertEquals(perBlock.checkedBlockEntities, section.checkedBlockEntities, "block entities in round " + round);
+            Assertions.assertTrue(section.packets.size() < perBlock.packets.size());
+        }
+    }
+
+    /**
+     * Every block of a section, with block states that vary per position.
+     */
+    private static BlockChangeEntry[] fullSection(int chunkX, int chunkY, int chunkZ) {
+        BlockChangeEntry[] entries = new BlockChangeEntry[4096];
+        int i = 0;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    Vector3i position = Vector3i.from((chunkX << 4) + x, (chunkY << 4) + y, (chunkZ << 4) + z);
+                    entries[i] = new BlockChangeEntry(position, 2 + (x * 7 + y * 13 + z * 3) % 50);
+                    i++;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static int expectedAboveUpdates(BlockChangeEntry[] entries) {
+        int count = 0;
+        for (BlockChangeEntry entry : entries) {
+            if (TestBlockUpdater.pushesUp(entry.getBlock()) && (entry.getPosition().getY() & 15) == 15) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int expectedBlockEntities(BlockChangeEntry[] entries) {
+        int count = 0;
+        for (BlockChangeEntry entry : entries) {
+            if (TestBlockUpdater.hasBlockEntity(entry.getBlock())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private record TestDefinition(int runtimeId) implements BlockDefinition {
+        @Override
+        public int getRuntimeId() {
+            return runtimeId;
+        }
+    }
+
+    /**
+     * Stands in for the session-backed block update: both layers of the block, an extended collision box in the block
+     * above for some states, and a Bedrock-only block entity for others.
+     */
+    private record TestBlockUpdater(Consumer<BedrockPacket> sender) implements ChunkUtils.ClientBlockUpdater {
+        static boolean pushesUp(int blockState) {
+            return blockState % 7 == 0;
+        }
+
+        static boolean hasBlockEntity(int blockState) {
+            return blockState % 11 == 0;
+        }
+
+        static BlockDefinition definition(int blockState) {
+            return new TestDefinition(blockState);
+        }
+
+        @Override
+        public boolean updateLayers(int blockState, Vector3i position, @Nullable UpdateSubChunkBlocksPacket batch) {
+            ChunkUtils.sendBlockLayer(sender, batch, position, 0, definition(blockState), UpdateBlockPacket.Flag.NEIGHBORS, UpdateBlockPacket.Flag.NETWORK);
+            ChunkUtils.sendBlockLayer(sender, batch, position, 1, blockState % 5 == 0 ? WATER : AIR);
+            if (pushesUp(blockState) && (position.getY() & 15) == 15) {
+                // Only at the top of the section so the result doesn't depend on the order blocks are processed in
+                ChunkUtils.sendBlockLayer(sender, batch, position.add(0, 1, 0), 0, definition(1000 + blockState), UpdateBlockPacket.Flag.NETWORK);
+            }
+            return true;
+        }
+
+        @Override
+        public void updateBlockEntities(int blockState, Vector3i position) {
+            if (hasBlockEntity(blockState)) {
+                BlockEntityDataPacket packet = new BlockEntityDataPacket();
+                packet.setBlockPosition(position);
+                sender.accept(packet);
+            }
+        }
+    }
+
+    /**
+     * Applies block updates the way the Bedrock client does, and checks that a block entity's block is there first.
+     */
+    private static final class TestClient {
+        private final List<BedrockPacket> packets = new ArrayList<>();
+        private final Map<Vector3i, BlockDefinition> layer0 = new HashMap<>();
+        private final Map<Vector3i, BlockDefinition> layer1 = new HashMap<>();
+        private int checkedBlockEntities;
+
+        void receive(BedrockPacket packet) {
+            packets.add(packet);
+            if (packet instanceof UpdateBlockPacket blockPacket) {
+                (blockPacket.getDataLayer() == 0 ? layer0 : layer1).put(blockPacket.getBlockPosition(), blockPacket.getDefinition());
+            } else if (packet instanceof UpdateSubChunkBlocksPacket subChunkPacket) {
+                for (org.cloudburstmc.protocol.bedrock.data.BlockChangeEntry entry : subChunkPacket.getStandardBlocks()) {
+                    layer0.put(entry.getPosition(), entry.getDefinition());
+                }
+                for (org.cloudburstmc.protocol.bedrock.data.BlockChangeEntry entry : subChunkPacket.getExtraBlocks()) {
+                    layer1.put(entry.getPosition(), entry.getDefinition());
+                }
+            } else if (packet instanceof BlockEntityDataPacket blockEntityPacket) {
+                BlockDefinition block = layer0.get(blockEntityPacket.getBlockPosition());
+                Assertions.assertNotNull(block, "block entity sent before its block at " + blockEntityPacket.getBlockPosition());
+                Assertions.assertTrue(TestBlockUpdater.hasBlockEntity(block.getRuntimeId()), "block entity sent before its block at " + blockEntityPacket.getBlockPosition());
+                checkedBlockEntities++;
+            }
+        }
+    }
+}